@@ -0,0 +1,79 @@
+package com.telegram.benchmark;
+
+import com.telegram.config.BarbershopConfig;
+import com.telegram.entity.BarberService;
+import com.telegram.repository.BookingRepository;
+import com.telegram.service.AvailabilityService;
+import com.telegram.service.SlotOccupancyService;
+import com.telegram.tracing.Tracer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Slot listing and the booking date window at different booking densities. The warm
+ * benchmarks run against a populated occupancy cache, which is the steady state; the
+ * cold one includes loading the window from the repository.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AvailabilityBenchmark {
+
+    @Param({"0.2", "0.5", "0.9"})
+    public double density;
+
+    private BarbershopConfig config;
+    private BookingRepository bookingRepository;
+    private AvailabilityService availabilityService;
+    private BarberService haircut;
+    private BarberService haircutAndBeard;
+    private LocalDate tomorrow;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Fixtures.quietLogging();
+        config = Fixtures.config();
+        List<BarberService> services = Fixtures.services();
+        haircut = services.get(0);
+        haircutAndBeard = services.get(2);
+        tomorrow = LocalDate.now().plusDays(1);
+
+        bookingRepository = InMemoryRepositories.bookings(Fixtures.bookings(config, services, density, 42));
+        availabilityService = new AvailabilityService(new SlotOccupancyService(bookingRepository, config, Tracer.disabled()), config, Tracer.disabled());
+        availabilityService.getAvailableDates(haircut);
+    }
+
+    @Benchmark
+    public List<LocalTime> slotListing() {
+        return availabilityService.getAvailableTimeSlots(tomorrow, haircutAndBeard);
+    }
+
+    @Benchmark
+    public List<LocalDate> dateWindow() {
+        return availabilityService.getAvailableDates(haircutAndBeard);
+    }
+
+    @Benchmark
+    public List<LocalDate> dateWindowCold() {
+        AvailabilityService cold = new AvailabilityService(new SlotOccupancyService(bookingRepository, config, Tracer.disabled()), config, Tracer.disabled());
+        return cold.getAvailableDates(haircutAndBeard);
+    }
+}
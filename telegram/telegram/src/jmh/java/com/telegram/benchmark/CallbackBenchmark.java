@@ -0,0 +1,69 @@
+package com.telegram.benchmark;
+
+import com.telegram.service.BarberServiceService;
+import com.telegram.util.Callback;
+import com.telegram.util.CallbackCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoding the callback data of the booking flow, in the current and the legacy format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CallbackBenchmark {
+
+    private CallbackCodec codec;
+    private Callback confirmBooking;
+    private String confirmBookingData;
+    private String menuData;
+    private String legacyConfirmBookingData;
+
+    @Setup
+    public void setUp() {
+        Fixtures.quietLogging();
+        codec = new CallbackCodec(new BarberServiceService(InMemoryRepositories.services(Fixtures.services())));
+
+        LocalDate date = LocalDate.now().plusDays(1);
+        confirmBooking = new Callback.ConfirmBooking(2, date, LocalTime.of(14, 30));
+        confirmBookingData = codec.encode(confirmBooking);
+        menuData = codec.encode(new Callback.Menu(Callback.MenuItem.MY_BOOKINGS));
+        legacyConfirmBookingData = "confirm_booking:14-30:" + date + ":skin-fade";
+    }
+
+    @Benchmark
+    public Callback decodeConfirmBooking() {
+        return codec.decode(confirmBookingData);
+    }
+
+    @Benchmark
+    public Callback decodeMenu() {
+        return codec.decode(menuData);
+    }
+
+    @Benchmark
+    public Callback decodeLegacyConfirmBooking() {
+        return codec.decode(legacyConfirmBookingData);
+    }
+
+    @Benchmark
+    public String encodeConfirmBooking() {
+        return codec.encode(confirmBooking);
+    }
+}
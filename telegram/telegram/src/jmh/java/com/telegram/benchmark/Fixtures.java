@@ -0,0 +1,129 @@
+package com.telegram.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.telegram.config.BarbershopConfig;
+import com.telegram.entity.BarberService;
+import com.telegram.entity.Booking;
+import com.telegram.entity.Booking.BookingStatus;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Shop configuration, catalog and booking books shared by the benchmarks.
+ */
+final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /**
+     * The services log every lookup at info/debug, which would otherwise dominate the numbers.
+     */
+    static void quietLogging() {
+        ((Logger) LoggerFactory.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+    }
+
+    static BarbershopConfig config() {
+        BarbershopConfig config = new BarbershopConfig();
+        config.setName("Kings Cut Barbershop");
+        config.setAddress("Unit 3, Irish Barber, 123 Main St, Dublin, Ireland");
+        config.setPhoneNumber("+353123456789");
+        config.setEircode("D01 ABC2");
+        config.setOpeningTime(LocalTime.of(9, 0));
+        config.setClosingTime(LocalTime.of(19, 0));
+        config.setClosedDays(DayOfWeek.SUNDAY);
+        config.setSlotIntervalMinutes(30);
+        config.setMinAdvanceBookingHours(2);
+        config.setBookingWindowDays(7);
+        config.setDepositPercentage(25);
+        config.getLoyalty().setPointsPerBooking(10);
+        config.getLoyalty().setFirstBookingBonus(50);
+        config.getLoyalty().setMilestones(List.of(5, 10, 25, 50, 100));
+        return config;
+    }
+
+    static List<BarberService> services() {
+        return List.of(
+                service(1L, "Haircut", "haircut", "20.00", 30, 1),
+                service(2L, "Skin Fade", "skin-fade", "25.00", 45, 2),
+                service(3L, "Haircut & Beard", "haircut-beard", "35.00", 60, 3),
+                service(4L, "Beard Trim", "beard-trim", "12.00", 30, 4));
+    }
+
+    /**
+     * Books random services into the window until roughly {@code density} of the
+     * opening hours of every day are taken.
+     */
+    static List<Booking> bookings(BarbershopConfig config, List<BarberService> services, double density, long seed) {
+        Random random = new Random(seed);
+        List<Booking> bookings = new ArrayList<>();
+        int interval = config.getSlotIntervalMinutes();
+        int slotsPerDay = (config.getClosingTime().toSecondOfDay() - config.getOpeningTime().toSecondOfDay()) / 60 / interval;
+        long id = 1;
+
+        for (int day = 0; day < config.getBookingWindowDays(); day++) {
+            LocalDate date = LocalDate.now().plusDays(day);
+            boolean[] taken = new boolean[slotsPerDay];
+            int target = (int) (slotsPerDay * density);
+            int occupied = 0;
+
+            for (int attempt = 0; occupied < target && attempt < slotsPerDay * 10; attempt++) {
+                BarberService service = services.get(random.nextInt(services.size()));
+                int length = (service.getDurationMinutes() + interval - 1) / interval;
+                int start = random.nextInt(slotsPerDay - length + 1);
+                if (isFree(taken, start, length)) {
+                    for (int slot = start; slot < start + length; slot++) {
+                        taken[slot] = true;
+                    }
+                    occupied += length;
+
+                    LocalTime startTime = config.getOpeningTime().plusMinutes((long) start * interval);
+                    bookings.add(Booking.builder()
+                            .id(id)
+                            .bookingCode("BK" + id)
+                            .customerChatId(1000L + id)
+                            .serviceId(service.getId())
+                            .bookingDate(date)
+                            .startTime(startTime)
+                            .endTime(startTime.plusMinutes(service.getDurationMinutes()))
+                            .status(BookingStatus.CONFIRMED)
+                            .depositAmount(new BigDecimal("5.00"))
+                            .depositPaid(false)
+                            .remainingBalance(service.getPrice().subtract(new BigDecimal("5.00")))
+                            .build());
+                    id++;
+                }
+            }
+        }
+        return bookings;
+    }
+
+    private static boolean isFree(boolean[] taken, int start, int length) {
+        for (int slot = start; slot < start + length; slot++) {
+            if (taken[slot]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static BarberService service(Long id, String name, String slug, String price, int duration, int order) {
+        return BarberService.builder()
+                .id(id)
+                .name(name)
+                .slug(slug)
+                .price(new BigDecimal(price))
+                .durationMinutes(duration)
+                .active(true)
+                .displayOrder(order)
+                .build();
+    }
+}
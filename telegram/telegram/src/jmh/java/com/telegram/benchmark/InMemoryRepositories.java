@@ -0,0 +1,109 @@
+package com.telegram.benchmark;
+
+import com.telegram.entity.BarberService;
+import com.telegram.entity.Booking;
+import com.telegram.entity.Booking.BookingStatus;
+import com.telegram.repository.BarberServiceRepository;
+import com.telegram.repository.BookingRepository;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-ins for the Spring Data repositories backed by plain lists, so the benchmarks
+ * measure our code rather than MySQL. Only the finders the benchmarked paths call are
+ * implemented; anything else throws.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static BookingRepository bookings(List<Booking> bookings) {
+        return proxy(BookingRepository.class, (method, args) -> switch (method) {
+            case "findByBookingDateAndStatusIn" -> bookings.stream()
+                    .filter(booking -> booking.getBookingDate().equals(args[0]))
+                    .filter(booking -> ((Collection<BookingStatus>) args[1]).contains(booking.getStatus()))
+                    .toList();
+            case "findByBookingDateBetweenAndStatusIn" -> bookings.stream()
+                    .filter(booking -> !booking.getBookingDate().isBefore((LocalDate) args[0])
+                            && !booking.getBookingDate().isAfter((LocalDate) args[1]))
+                    .filter(booking -> ((Collection<BookingStatus>) args[2]).contains(booking.getStatus()))
+                    .toList();
+            case "findAll" -> List.copyOf(bookings);
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    /**
+     * A booking table that can be written from several threads. Only active bookings are
+     * kept, so a benchmark that books and cancels in a loop doesn't grow it.
+     */
+    @SuppressWarnings("unchecked")
+    static BookingRepository activeBookings() {
+        Map<Long, Booking> bookings = new ConcurrentHashMap<>();
+        AtomicLong ids = new AtomicLong();
+        return proxy(BookingRepository.class, (method, args) -> switch (method) {
+            case "save" -> {
+                Booking booking = (Booking) args[0];
+                if (booking.getId() == null) {
+                    booking.setId(ids.incrementAndGet());
+                }
+                if (booking.getStatus() == BookingStatus.PENDING || booking.getStatus() == BookingStatus.CONFIRMED) {
+                    bookings.put(booking.getId(), booking);
+                } else {
+                    bookings.remove(booking.getId());
+                }
+                yield booking;
+            }
+            case "findByBookingDateAndStatusIn" -> bookings.values().stream()
+                    .filter(booking -> booking.getBookingDate().equals(args[0]))
+                    .filter(booking -> ((Collection<BookingStatus>) args[1]).contains(booking.getStatus()))
+                    .toList();
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    static BarberServiceRepository services(List<BarberService> services) {
+        return proxy(BarberServiceRepository.class, (method, args) -> switch (method) {
+            case "findAll" -> List.copyOf(services);
+            case "findByActiveTrueOrderByDisplayOrder" -> services.stream()
+                    .filter(BarberService::getActive)
+                    .sorted(Comparator.comparing(BarberService::getDisplayOrder))
+                    .toList();
+            case "findBySlug" -> services.stream()
+                    .filter(service -> Objects.equals(service.getSlug(), args[0]))
+                    .findFirst();
+            case "findById" -> services.stream()
+                    .filter(service -> Objects.equals(service.getId(), args[0]))
+                    .findFirst();
+            default -> throw new UnsupportedOperationException(method);
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> "InMemory" + type.getSimpleName();
+                };
+            }
+            return handler.handle(method.getName(), args);
+        }));
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        Object handle(String method, Object[] args);
+    }
+}
@@ -0,0 +1,80 @@
+package com.telegram.benchmark;
+
+import com.telegram.config.BarbershopConfig;
+import com.telegram.entity.BarberService;
+import com.telegram.service.BarberServiceService;
+import com.telegram.util.CallbackCodec;
+import com.telegram.util.KeyboardHelper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering a full day's time grid, the widest keyboard the bot sends, next to the
+ * pre-rendered main menu.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class KeyboardBenchmark {
+
+    private static final Long CHAT_ID = 584120377L;
+
+    private KeyboardHelper keyboardHelper;
+    private BarberService service;
+    private LocalDate date;
+    private List<LocalTime> fullGrid;
+    private List<LocalDate> window;
+
+    @Setup
+    public void setUp() {
+        Fixtures.quietLogging();
+        BarbershopConfig config = Fixtures.config();
+        List<BarberService> services = Fixtures.services();
+        BarberServiceService barberServiceService = new BarberServiceService(InMemoryRepositories.services(services));
+
+        keyboardHelper = new KeyboardHelper(config, new CallbackCodec(barberServiceService));
+        keyboardHelper.renderTemplates();
+        service = services.get(0);
+        date = LocalDate.now().plusDays(1);
+
+        fullGrid = new ArrayList<>();
+        for (LocalTime time = config.getOpeningTime(); time.isBefore(config.getClosingTime());
+             time = time.plusMinutes(config.getSlotIntervalMinutes())) {
+            fullGrid.add(time);
+        }
+        window = date.datesUntil(date.plusDays(config.getBookingWindowDays())).toList();
+    }
+
+    @Benchmark
+    public SendMessage timeGrid() {
+        return keyboardHelper.buildTimeSelection(fullGrid, date, service).bind(CHAT_ID);
+    }
+
+    @Benchmark
+    public SendMessage dateSelection() {
+        return keyboardHelper.buildDateSelection(window, service).bind(CHAT_ID);
+    }
+
+    @Benchmark
+    public SendMessage mainMenu() {
+        return keyboardHelper.buildMainMenu().bind(CHAT_ID);
+    }
+}
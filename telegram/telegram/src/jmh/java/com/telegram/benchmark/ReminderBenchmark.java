@@ -0,0 +1,81 @@
+package com.telegram.benchmark;
+
+import com.telegram.config.BarbershopConfig;
+import com.telegram.entity.BarberService;
+import com.telegram.entity.Booking;
+import com.telegram.service.BarberServiceService;
+import com.telegram.service.ReminderService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering the day-before and same-day reminder texts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ReminderBenchmark {
+
+    private ReminderService reminderService;
+    private BarberService service;
+    private Booking tomorrowsBooking;
+    private Booking todaysBooking;
+
+    @Setup
+    public void setUp() {
+        Fixtures.quietLogging();
+        BarbershopConfig config = Fixtures.config();
+        List<BarberService> services = Fixtures.services();
+
+        reminderService = new ReminderService(
+                InMemoryRepositories.bookings(List.of()),
+                new BarberServiceService(InMemoryRepositories.services(services)),
+                config);
+        service = services.get(0);
+
+        todaysBooking = booking(LocalDate.now());
+        tomorrowsBooking = booking(LocalDate.now().plusDays(1));
+    }
+
+    private Booking booking(LocalDate date) {
+        return Booking.builder()
+                .id(1L)
+                .bookingCode("BK0TZGBZK62")
+                .customerChatId(584120377L)
+                .serviceId(service.getId())
+                .bookingDate(date)
+                .startTime(LocalTime.of(15, 30))
+                .endTime(LocalTime.of(16, 0))
+                .status(Booking.BookingStatus.CONFIRMED)
+                .remainingBalance(new BigDecimal("15.00"))
+                .build();
+    }
+
+    @Benchmark
+    public String upcomingReminder() {
+        return reminderService.buildReminderMessage(tomorrowsBooking, service, Duration.ofHours(24));
+    }
+
+    @Benchmark
+    public String sameDayReminder() {
+        return reminderService.buildReminderMessage(todaysBooking, service, Duration.ofHours(1));
+    }
+}
@@ -0,0 +1,111 @@
+package com.telegram.benchmark;
+
+import com.telegram.config.BarbershopConfig;
+import com.telegram.entity.BarberService;
+import com.telegram.entity.Booking;
+import com.telegram.repository.BookingRepository;
+import com.telegram.service.BarberServiceService;
+import com.telegram.service.BookingService;
+import com.telegram.service.ReminderService;
+import com.telegram.service.SlotOccupancyService;
+import com.telegram.tracing.Tracer;
+import com.telegram.util.BookingCodeGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Reservations per second with several threads booking at once. Every operation reserves
+ * a random slot and cancels it again if it got it, so the book stays the same size. In
+ * {@code sameDay} all threads book one date and queue on the same lock stripe; in
+ * {@code spreadDays} they book across the window, which is the contention the striping
+ * is meant to avoid.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class ReservationBenchmark {
+
+    private BookingService bookingService;
+    private BarberService haircut;
+    private List<LocalDate> dates;
+    private List<LocalTime> times;
+
+    @Setup
+    public void setUp() {
+        Fixtures.quietLogging();
+        BarbershopConfig config = Fixtures.config();
+        List<BarberService> services = Fixtures.services();
+        haircut = services.get(0);
+
+        BookingRepository bookingRepository = InMemoryRepositories.activeBookings();
+        bookingService = new BookingService(
+                bookingRepository,
+                new SlotOccupancyService(bookingRepository, config, Tracer.disabled()),
+                new ReminderService(bookingRepository, new BarberServiceService(InMemoryRepositories.services(services)), config),
+                new SequentialCodes(config),
+                config,
+                Tracer.disabled());
+
+        dates = LocalDate.now().plusDays(1).datesUntil(LocalDate.now().plusDays(config.getBookingWindowDays())).toList();
+        LocalTime lastStart = config.getClosingTime().minusMinutes(haircut.getDurationMinutes());
+        times = Stream.iterate(config.getOpeningTime(), time -> !time.isAfter(lastStart),
+                time -> time.plusMinutes(config.getSlotIntervalMinutes())).toList();
+    }
+
+    @Benchmark
+    public boolean sameDay() {
+        return reserveAndCancel(dates.get(0));
+    }
+
+    @Benchmark
+    public boolean spreadDays() {
+        return reserveAndCancel(dates.get(ThreadLocalRandom.current().nextInt(dates.size())));
+    }
+
+    private boolean reserveAndCancel(LocalDate date) {
+        LocalTime time = times.get(ThreadLocalRandom.current().nextInt(times.size()));
+        Optional<Booking> booking = bookingService.reserve(1000L, haircut, date, time);
+        booking.ifPresent(bookingService::cancelBooking);
+        return booking.isPresent();
+    }
+
+    /**
+     * The real generator issues 32 codes per second per node and then waits for the
+     * clock, which would be all this benchmark measured.
+     */
+    private static final class SequentialCodes extends BookingCodeGenerator {
+
+        private final AtomicLong sequence = new AtomicLong();
+
+        SequentialCodes(BarbershopConfig config) {
+            super(config);
+        }
+
+        @Override
+        public String nextCode() {
+            return PREFIX + sequence.incrementAndGet();
+        }
+    }
+}
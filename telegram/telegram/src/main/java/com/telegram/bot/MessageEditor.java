@@ -0,0 +1,88 @@
+package com.telegram.bot;
+
+import com.telegram.config.TelegramBotConfig;
+import com.telegram.service.MessageSender;
+import com.telegram.util.ExpiringLruCache;
+import com.telegram.util.MessageTemplate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
+
+import java.io.Serializable;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replaces the content of a message the bot already sent, so a callback updates the
+ * message whose button was tapped instead of adding another one to the chat.
+ * <p>
+ * The last content put on each message is remembered as a pair of hashes. An edit that
+ * wouldn't change anything is skipped (Telegram rejects those anyway), and one that
+ * only changes the keyboard is sent as the smaller {@code editMessageReplyMarkup}. If
+ * an edit fails, e.g. because the message was deleted, the content is sent as a new
+ * message instead.
+ */
+@Slf4j
+@Component
+public class MessageEditor {
+
+    private static final String NOT_MODIFIED = "message is not modified";
+
+    private final MessageSender messageSender;
+    private final ExpiringLruCache<MessageKey, Rendered> rendered;
+
+    private final LongAdder skippedEdits = new LongAdder();
+
+    public MessageEditor(MessageSender messageSender, TelegramBotConfig telegramBotConfig) {
+        this.messageSender = messageSender;
+        TelegramBotConfig.Outbound config = telegramBotConfig.getOutbound();
+        this.rendered = new ExpiringLruCache<>(config.getRenderedMessagesMaxSize(), config.getRenderedMessagesTimeToLive());
+    }
+
+    public void edit(Long chatId, Integer messageId, MessageTemplate content) {
+        if (messageId == null) {
+            send(chatId, content);
+            return;
+        }
+
+        MessageKey key = new MessageKey(chatId, messageId);
+        Rendered current = Rendered.of(content);
+        Rendered previous = rendered.get(key);
+        if (current.equals(previous)) {
+            skippedEdits.increment();
+            return;
+        }
+
+        BotApiMethod<Serializable> edit = previous != null && previous.textHash() == current.textHash()
+                ? content.bindMarkupEdit(chatId, messageId)
+                : content.bindEdit(chatId, messageId);
+        rendered.put(key, current);
+
+        messageSender.send(chatId, edit, MessageSender.Priority.INTERACTIVE).exceptionally(e -> {
+            if (!Objects.toString(e.getMessage(), "").contains(NOT_MODIFIED)) {
+                rendered.invalidate(key);
+                log.debug("Could not edit message {} in chat {}, sending a new one", messageId, chatId);
+                send(chatId, content);
+            }
+            return null;
+        });
+    }
+
+    public void send(Long chatId, MessageTemplate content) {
+        messageSender.send(chatId, content.bind(chatId), MessageSender.Priority.INTERACTIVE);
+    }
+
+    public long getSkippedEdits() {
+        return skippedEdits.sum();
+    }
+
+    private record MessageKey(Long chatId, Integer messageId) {
+    }
+
+    private record Rendered(int textHash, int markupHash) {
+
+        static Rendered of(MessageTemplate content) {
+            return new Rendered(Objects.hashCode(content.text()), Objects.hashCode(content.markup()));
+        }
+    }
+}
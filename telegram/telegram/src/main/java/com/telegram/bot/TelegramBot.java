@@ -6,54 +6,119 @@ import com.telegram.entity.Booking;
 import com.telegram.entity.Customer;
 import com.telegram.service.AvailabilityService;
 import com.telegram.service.BarberServiceService;
+import com.telegram.service.BookingDraft;
+import com.telegram.service.BookingPage;
 import com.telegram.service.BookingService;
+import com.telegram.service.BookingSessionService;
 import com.telegram.service.CustomerService;
 import com.telegram.service.LoyaltyService;
 import com.telegram.service.MessageSender;
+import com.telegram.service.SlotOccupancyService;
+import com.telegram.tracing.Tracer;
+import com.telegram.util.BookingCodeGenerator;
+import com.telegram.util.Callback;
+import com.telegram.util.Callback.MenuItem;
+import com.telegram.util.CallbackCodec;
 import com.telegram.util.KeyboardHelper;
+import com.telegram.util.MessageTemplate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 import org.telegram.telegrambots.bots.TelegramLongPollingBot;
+import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
+import org.telegram.telegrambots.meta.api.objects.MaybeInaccessibleMessage;
 import org.telegram.telegrambots.meta.api.objects.Update;
-import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 @Slf4j
 @Component
 public class TelegramBot extends TelegramLongPollingBot {
 
+    // SelectDate -> select_date
+    private static final ClassValue<String> CALLBACK_ACTIONS = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            String name = type.getSimpleName();
+            StringBuilder action = new StringBuilder(name.length() + 4);
+            for (int i = 0; i < name.length(); i++) {
+                char c = name.charAt(i);
+                if (Character.isUpperCase(c) && i > 0) {
+                    action.append('_');
+                }
+                action.append(Character.toLowerCase(c));
+            }
+            return action.toString();
+        }
+    };
+
     private final TelegramBotConfig telegramBotConfig;
     private final CustomerService customerService;
     private final BarberServiceService barberServiceService;
     private final BookingService bookingService;
+    private final BookingSessionService bookingSessionService;
     private final AvailabilityService availabilityService;
     private final LoyaltyService loyaltyService;
     private final KeyboardHelper keyboardHelper;
+    private final CallbackCodec callbackCodec;
     private final MessageSender messageSender;
+    private final MessageEditor messageEditor;
+    private final UpdateDispatcher updateDispatcher;
+    private final UpdateDeduplicator updateDeduplicator;
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+
+    private final Timer messageTimer;
+    private final Timer callbackUpdateTimer;
+    private final Timer otherUpdateTimer;
+    private final ClassValue<Timer> callbackTimers = new ClassValue<>() {
+        @Override
+        protected Timer computeValue(Class<?> type) {
+            return Timer.builder("bot.callback")
+                    .description("Time spent handling one callback action")
+                    .tag("action", CALLBACK_ACTIONS.get(type))
+                    .register(meterRegistry);
+        }
+    };
 
     public TelegramBot(TelegramBotConfig telegramBotConfig,
                        CustomerService customerService,
                        BarberServiceService barberServiceService,
                        BookingService bookingService,
+                       BookingSessionService bookingSessionService,
                        AvailabilityService availabilityService,
                        LoyaltyService loyaltyService,
                        KeyboardHelper keyboardHelper,
-                       MessageSender messageSender) {
+                       CallbackCodec callbackCodec,
+                       MessageSender messageSender,
+                       MessageEditor messageEditor,
+                       UpdateDispatcher updateDispatcher,
+                       UpdateDeduplicator updateDeduplicator,
+                       MeterRegistry meterRegistry,
+                       Tracer tracer) {
         this.telegramBotConfig = telegramBotConfig;
         this.customerService = customerService;
         this.barberServiceService = barberServiceService;
         this.bookingService = bookingService;
+        this.bookingSessionService = bookingSessionService;
         this.availabilityService = availabilityService;
         this.loyaltyService = loyaltyService;
         this.keyboardHelper = keyboardHelper;
+        this.callbackCodec = callbackCodec;
         this.messageSender = messageSender;
+        this.messageEditor = messageEditor;
+        this.updateDispatcher = updateDispatcher;
+        this.updateDeduplicator = updateDeduplicator;
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
+        this.messageTimer = updateTimer("message");
+        this.callbackUpdateTimer = updateTimer("callback");
+        this.otherUpdateTimer = updateTimer("other");
     }
 
     @PostConstruct
@@ -73,7 +138,27 @@ public class TelegramBot extends TelegramLongPollingBot {
 
     @Override
     public void onUpdateReceived(Update update) {
-        try {
+        // Timed from arrival, so time spent queued behind the chat's earlier updates is included
+        Timer.Sample sample = Timer.start(meterRegistry);
+        if (update.hasCallbackQuery()) {
+            // Answered before the update is queued, so the spinner stops however long handling takes
+            messageSender.answerCallback(update.getCallbackQuery().getId());
+        }
+        // Repeats are still answered above, the client shows a spinner for each tap
+        if (updateDeduplicator.isDuplicate(update)) {
+            return;
+        }
+        updateDispatcher.dispatch(update, dispatched -> {
+            try {
+                handleUpdate(dispatched);
+            } finally {
+                sample.stop(updateTimer(dispatched));
+            }
+        });
+    }
+
+    private void handleUpdate(Update update) {
+        try (Tracer.Scope trace = tracer.startTrace("update", update.getUpdateId())) {
             if (update.hasMessage() && update.getMessage().hasText()) {
                 handleTextMessage(update);
             } else if (update.hasCallbackQuery()) {
@@ -84,195 +169,197 @@ public class TelegramBot extends TelegramLongPollingBot {
         }
     }
 
-    private void handleTextMessage(Update update) throws TelegramApiException {
+    private void handleTextMessage(Update update) {
         String messageText = update.getMessage().getText();
         Long chatId = update.getMessage().getChatId();
         String username = update.getMessage().getFrom().getUserName();
 
         if (messageText.equals("/start")) {
             customerService.getOrCreateCustomer(chatId, username);
-            execute(keyboardHelper.buildMainMenu(chatId));
+            messageEditor.send(chatId, keyboardHelper.buildMainMenu());
         } else {
-            execute(keyboardHelper.buildMainMenu(chatId));
+            messageEditor.send(chatId, keyboardHelper.buildMainMenu());
         }
     }
 
-    private void handleCallbackQuery(Update update) throws TelegramApiException {
-        Long chatId = update.getCallbackQuery().getMessage().getChatId();
-        String callbackData = update.getCallbackQuery().getData();
-        String[] parts = callbackData.split(":");
-
-        String action = parts[0];
-
-        switch (action) {
-            case "menu" -> handleMenuCallback(chatId, parts);
-            case "birthday", "birthday_month", "birthday_day", "birthday_confirm" -> handleBirthdayCallback(chatId, callbackData, parts);
-            case "select_service" -> handleServiceSelection(chatId, parts);
-            case "select_date" -> handleDateSelection(chatId, parts);
-            case "select_time" -> handleTimeSelection(chatId, parts);
-            case "confirm_booking" -> handleBookingConfirmation(chatId, parts);
-            case "cancel_booking" -> handleCancelBooking(chatId, parts);
-            case "confirm_cancel" -> handleConfirmCancel(chatId, parts);
-            default -> execute(keyboardHelper.buildMainMenu(chatId));
+    private void handleCallbackQuery(Update update) {
+        CallbackQuery query = update.getCallbackQuery();
+        MaybeInaccessibleMessage message = query.getMessage();
+        if (message == null) {
+            // Inline mode buttons, the bot doesn't send any
+            log.debug("Ignoring callback {} without a message", query.getId());
+            return;
+        }
+        Long chatId = message.getChatId();
+        Integer messageId = message.getMessageId();
+        Callback callback = callbackCodec.decode(query.getData());
+
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try (Tracer.Scope span = tracer.span("callback", CALLBACK_ACTIONS.get(callback.getClass()))) {
+            // Every step replaces the message whose button was tapped
+            messageEditor.edit(chatId, messageId, route(chatId, callback));
+        } finally {
+            sample.stop(callbackTimers.get(callback.getClass()));
         }
     }
 
-    private void handleMenuCallback(Long chatId, String[] parts) throws TelegramApiException {
-        String menuAction = parts[1];
+    private MessageTemplate route(Long chatId, Callback callback) {
+        return switch (callback) {
+            case Callback.Menu menu -> handleMenuCallback(chatId, menu.item());
+            case Callback.BirthdayAdd ignored -> keyboardHelper.buildBirthdayMonthSelection();
+            case Callback.BirthdaySkip ignored -> handleBirthdaySkip(chatId);
+            case Callback.BirthdayMonth month -> keyboardHelper.buildBirthdayDaySelection(month.month());
+            case Callback.BirthdayDay day -> keyboardHelper.buildBirthdayConfirmation(day.day(), day.month());
+            case Callback.BirthdayConfirm confirm -> handleBirthdayConfirm(chatId, confirm);
+            case Callback.SelectService select -> handleServiceSelection(chatId, select);
+            case Callback.SelectDate select -> handleDateSelection(chatId, select);
+            case Callback.SelectTime select -> handleTimeSelection(chatId, select);
+            case Callback.ConfirmBooking confirm -> handleBookingConfirmation(chatId, confirm);
+            case Callback.CancelBooking cancel -> handleCancelBooking(chatId, cancel.bookingCode());
+            case Callback.ConfirmCancel confirm -> handleConfirmCancel(chatId, confirm.bookingCode());
+            case Callback.MyBookingsPage page -> handleMyBookingsPage(chatId, page);
+            case Callback.Unknown ignored -> keyboardHelper.buildMainMenu();
+        };
+    }
 
-        switch (menuAction) {
-            case "main" -> execute(keyboardHelper.buildMainMenu(chatId));
-            case "services" -> {
-                List<BarberService> services = barberServiceService.getActiveServices();
-                execute(keyboardHelper.buildServicesMenu(chatId, services));
-            }
-            case "help" -> execute(keyboardHelper.buildHelpMenu(chatId));
-            case "about" -> execute(keyboardHelper.buildAboutMenu(chatId));
-            case "book" -> handleBookAction(chatId);
-            case "my_bookings" -> handleMyBookings(chatId);
-            case "loyalty" -> handleLoyaltyStatus(chatId);
-            default -> execute(keyboardHelper.buildMainMenu(chatId));
-        }
+    private MessageTemplate handleMenuCallback(Long chatId, MenuItem item) {
+        return switch (item) {
+            case MAIN -> keyboardHelper.buildMainMenu();
+            case SERVICES -> keyboardHelper.buildServicesMenu(barberServiceService.getActiveServices());
+            case HELP -> keyboardHelper.buildHelpMenu();
+            case ABOUT -> keyboardHelper.buildAboutMenu();
+            case BOOK -> handleBookAction(chatId);
+            case MY_BOOKINGS -> handleMyBookings(chatId);
+            case LOYALTY -> handleLoyaltyStatus(chatId);
+        };
     }
 
-    private void handleBookAction(Long chatId) throws TelegramApiException {
+    private MessageTemplate handleBookAction(Long chatId) {
         Customer customer = customerService.getOrCreateCustomer(chatId, null);
 
         if (!customer.getBirthdayPrompted()) {
-            execute(keyboardHelper.buildBirthdayPrompt(chatId));
+            return keyboardHelper.buildBirthdayPrompt();
         } else {
             List<BarberService> services = barberServiceService.getActiveServices();
-            execute(keyboardHelper.buildServiceSelection(chatId, services));
+            return keyboardHelper.buildServiceSelection(services);
         }
     }
 
-    private void handleBirthdayCallback(Long chatId, String callbackData, String[] parts) throws TelegramApiException {
-        if (callbackData.equals("birthday:add")) {
-            execute(keyboardHelper.buildBirthdayMonthSelection(chatId));
-        } else if (callbackData.equals("birthday:skip")) {
-            Customer customer = customerService.getOrCreateCustomer(chatId, null);
-            customer.setBirthdayPrompted(true);
-            customerService.save(customer);
+    private MessageTemplate handleBirthdaySkip(Long chatId) {
+        customerService.skipBirthday(chatId);
 
-            List<BarberService> services = barberServiceService.getActiveServices();
-            execute(keyboardHelper.buildServiceSelection(chatId, services));
-        } else if (parts[0].equals("birthday_month")) {
-            String month = parts[1];
-            execute(keyboardHelper.buildBirthdayDaySelection(chatId, month));
-        } else if (parts[0].equals("birthday_day")) {
-            int day = Integer.parseInt(parts[1]);
-            String month = parts[2];
-            execute(keyboardHelper.buildBirthdayConfirmation(chatId, day, month));
-        } else if (parts[0].equals("birthday_confirm")) {
-            int day = Integer.parseInt(parts[1]);
-            String month = parts[2];
-            int monthValue = java.time.Month.valueOf(month.toUpperCase()).getValue();
+        List<BarberService> services = barberServiceService.getActiveServices();
+        return keyboardHelper.buildServiceSelection(services);
+    }
 
-            Customer customer = customerService.getOrCreateCustomer(chatId, null);
-            customer.setBirthdayDay(day);
-            customer.setBirthdayMonth(monthValue);
-            customer.setBirthdayPrompted(true);
-            customerService.save(customer);
+    private MessageTemplate handleBirthdayConfirm(Long chatId, Callback.BirthdayConfirm confirm) {
+        customerService.setBirthday(chatId, confirm.day(), confirm.month().getValue());
 
-            List<BarberService> services = barberServiceService.getActiveServices();
-            execute(keyboardHelper.buildServiceSelection(chatId, services));
-        }
+        List<BarberService> services = barberServiceService.getActiveServices();
+        return keyboardHelper.buildServiceSelection(services);
     }
 
-    private void handleServiceSelection(Long chatId, String[] parts) throws TelegramApiException {
-        String serviceSlug = parts[1];
-        List<LocalDate> availableDates = availabilityService.getAvailableDates();
+    private MessageTemplate handleServiceSelection(Long chatId, Callback.SelectService select) {
+        Optional<BookingDraft> draftOpt = bookingSessionService.selectService(chatId, select.serviceId());
+        if (draftOpt.isEmpty()) {
+            return keyboardHelper.buildMainMenu();
+        }
+
+        BarberService service = draftOpt.get().service();
+        List<LocalDate> availableDates = availabilityService.getAvailableDates(service);
 
         if (availableDates.isEmpty()) {
-            execute(keyboardHelper.buildNoAvailableDatesMessage(chatId));
-            return;
+            return keyboardHelper.buildNoAvailableDatesMessage();
         }
 
-        execute(keyboardHelper.buildDateSelection(chatId, availableDates, serviceSlug));
+        return keyboardHelper.buildDateSelection(availableDates, service);
     }
 
-    private void handleDateSelection(Long chatId, String[] parts) throws TelegramApiException {
-        LocalDate date = LocalDate.parse(parts[1]);
-        String serviceSlug = parts[2];
+    private MessageTemplate handleDateSelection(Long chatId, Callback.SelectDate select) {
+        LocalDate date = select.date();
 
         // Validate date is not in the past
         if (date.isBefore(LocalDate.now())) {
-            execute(keyboardHelper.buildDateExpiredMessage(chatId));
-            return;
+            return keyboardHelper.buildDateExpiredMessage();
         }
 
-        List<LocalTime> availableSlots = availabilityService.getAvailableTimeSlots(date);
+        Optional<BookingDraft> draftOpt = bookingSessionService.selectDate(chatId, select.serviceId(), date);
+        if (draftOpt.isEmpty()) {
+            return keyboardHelper.buildMainMenu();
+        }
 
-        if (availableSlots.isEmpty()) {
-            execute(keyboardHelper.buildNoAvailableSlotsMessage(chatId, serviceSlug));
-            return;
+        BookingDraft draft = draftOpt.get();
+        if (draft.slots().isEmpty()) {
+            return keyboardHelper.buildNoAvailableSlotsMessage(draft.service());
         }
 
-        execute(keyboardHelper.buildTimeSelection(chatId, availableSlots, date, serviceSlug));
+        return keyboardHelper.buildTimeSelection(draft.slots(), date, draft.service());
     }
 
-    private void handleTimeSelection(Long chatId, String[] parts) throws TelegramApiException {
-        LocalTime time = LocalTime.parse(parts[1], java.time.format.DateTimeFormatter.ofPattern("HH-mm"));
-        LocalDate date = LocalDate.parse(parts[2]);
-        String serviceSlug = parts[3];
+    private MessageTemplate handleTimeSelection(Long chatId, Callback.SelectTime select) {
+        Optional<BookingDraft> draftOpt = bookingSessionService.selectTime(
+                chatId, select.serviceId(), select.date(), select.time());
+        if (draftOpt.isEmpty()) {
+            return keyboardHelper.buildMainMenu();
+        }
 
-        Optional<BarberService> serviceOpt = barberServiceService.findBySlug(serviceSlug);
-        if (serviceOpt.isPresent()) {
-            execute(keyboardHelper.buildBookingSummary(chatId, serviceOpt.get(), date, time));
-        } else {
-            execute(keyboardHelper.buildMainMenu(chatId));
+        // The slot may have been taken since the times were shown
+        if (!draftOpt.get().isOffered(select.time())) {
+            return keyboardHelper.buildSlotUnavailableMessage();
         }
+
+        return keyboardHelper.buildBookingSummary(draftOpt.get().service(), select.date(), select.time());
     }
 
-    private void handleBookingConfirmation(Long chatId, String[] parts) throws TelegramApiException {
-        LocalTime time = LocalTime.parse(parts[1], java.time.format.DateTimeFormatter.ofPattern("HH-mm"));
-        LocalDate date = LocalDate.parse(parts[2]);
-        String serviceSlug = parts[3];
+    private MessageTemplate handleBookingConfirmation(Long chatId, Callback.ConfirmBooking confirm) {
+        LocalDate date = confirm.date();
+        LocalTime time = confirm.time();
 
         // Validate date is not in the past
         if (date.isBefore(LocalDate.now())) {
-            execute(keyboardHelper.buildDateExpiredMessage(chatId));
-            return;
+            return keyboardHelper.buildDateExpiredMessage();
         }
 
         // Validate time is not in the past for today's bookings
         if (date.equals(LocalDate.now()) && time.isBefore(LocalTime.now())) {
-            execute(keyboardHelper.buildDateExpiredMessage(chatId));
-            return;
+            return keyboardHelper.buildDateExpiredMessage();
         }
 
-        Optional<BarberService> serviceOpt = barberServiceService.findBySlug(serviceSlug);
+        Optional<BarberService> serviceOpt = bookingSessionService.serviceFor(chatId, confirm.serviceId());
+        Optional<Booking> bookingOpt = serviceOpt.flatMap(service -> bookingService.reserve(chatId, service, date, time));
 
-        if (serviceOpt.isPresent() && bookingService.isSlotAvailable(date, time)) {
-            BarberService service = serviceOpt.get();
-            Booking booking = bookingService.createBooking(chatId, service, date, time);
+        if (bookingOpt.isPresent()) {
+            bookingSessionService.finish(chatId);
 
             // Increment total bookings for customer
             Customer customer = customerService.getOrCreateCustomer(chatId, null);
             loyaltyService.incrementTotalBookings(customer);
 
-            execute(keyboardHelper.buildBookingConfirmed(chatId, booking, service));
+            return keyboardHelper.buildBookingConfirmed(bookingOpt.get(), serviceOpt.get());
         } else {
-            execute(keyboardHelper.buildSlotUnavailableMessage(chatId));
+            return keyboardHelper.buildSlotUnavailableMessage();
         }
     }
 
-    private void handleMyBookings(Long chatId) throws TelegramApiException {
-        List<Booking> bookings = bookingService.getCustomerActiveBookings(chatId);
+    private MessageTemplate handleMyBookings(Long chatId) {
+        return keyboardHelper.buildMyBookings(bookingService.getActiveBookingsPage(chatId));
+    }
+
+    private MessageTemplate handleMyBookingsPage(Long chatId, Callback.MyBookingsPage page) {
+        BookingPage next = bookingService.getActiveBookingsPageAfter(chatId, page.date(), page.time(), page.bookingId());
 
-        Map<Long, BarberService> serviceMap = new HashMap<>();
-        for (Booking booking : bookings) {
-            if (!serviceMap.containsKey(booking.getServiceId())) {
-                barberServiceService.findById(booking.getServiceId())
-                        .ifPresent(service -> serviceMap.put(service.getId(), service));
-            }
+        // The later bookings may have been cancelled since the button was shown
+        if (next.bookings().isEmpty()) {
+            return handleMyBookings(chatId);
         }
-
-        execute(keyboardHelper.buildMyBookings(chatId, bookings, serviceMap));
+        return keyboardHelper.buildMyBookings(next);
     }
 
-    private void handleCancelBooking(Long chatId, String[] parts) throws TelegramApiException {
-        String bookingCode = parts[1];
+    private MessageTemplate handleCancelBooking(Long chatId, String bookingCode) {
+        // Callback data can be forged, a malformed code never reaches the database
+        if (!BookingCodeGenerator.isValid(bookingCode)) {
+            return keyboardHelper.buildMainMenu();
+        }
         Optional<Booking> bookingOpt = bookingService.findByBookingCode(bookingCode);
 
         if (bookingOpt.isPresent()) {
@@ -280,37 +367,56 @@ public class TelegramBot extends TelegramLongPollingBot {
             Optional<BarberService> serviceOpt = barberServiceService.findById(booking.getServiceId());
 
             if (serviceOpt.isPresent()) {
-                execute(keyboardHelper.buildCancelConfirmation(chatId, booking, serviceOpt.get()));
-                return;
+                return keyboardHelper.buildCancelConfirmation(booking, serviceOpt.get());
             }
         }
 
-        execute(keyboardHelper.buildMainMenu(chatId));
+        return keyboardHelper.buildMainMenu();
     }
 
-    private void handleConfirmCancel(Long chatId, String[] parts) throws TelegramApiException {
-        String bookingCode = parts[1];
+    private MessageTemplate handleConfirmCancel(Long chatId, String bookingCode) {
+        if (!BookingCodeGenerator.isValid(bookingCode)) {
+            return keyboardHelper.buildMainMenu();
+        }
         Optional<Booking> bookingOpt = bookingService.findByBookingCode(bookingCode);
 
         if (bookingOpt.isPresent()) {
             Booking booking = bookingOpt.get();
-            if (booking.getCustomerChatId().equals(chatId)) {
+            // A confirm tapped again after the deduplication window finds the booking already cancelled
+            if (booking.getCustomerChatId().equals(chatId) && booking.getStatus() == Booking.BookingStatus.CANCELLED) {
+                return keyboardHelper.buildCancellationSuccess(bookingCode);
+            }
+            if (booking.getCustomerChatId().equals(chatId)
+                    && SlotOccupancyService.ACTIVE_STATUSES.contains(booking.getStatus())) {
                 bookingService.cancelBooking(booking);
 
                 // Increment cancelled bookings for customer
                 Customer customer = customerService.getOrCreateCustomer(chatId, null);
                 loyaltyService.incrementCancelledBookings(customer);
 
-                execute(keyboardHelper.buildCancellationSuccess(chatId, bookingCode));
-                return;
+                return keyboardHelper.buildCancellationSuccess(bookingCode);
             }
         }
 
-        execute(keyboardHelper.buildMainMenu(chatId));
+        return keyboardHelper.buildMainMenu();
     }
 
-    private void handleLoyaltyStatus(Long chatId) throws TelegramApiException {
+    private MessageTemplate handleLoyaltyStatus(Long chatId) {
         Customer customer = customerService.getOrCreateCustomer(chatId, null);
-        execute(keyboardHelper.buildLoyaltyStatus(chatId, customer));
+        return keyboardHelper.buildLoyaltyStatus(customer);
+    }
+
+    private Timer updateTimer(Update update) {
+        if (update.hasMessage()) {
+            return messageTimer;
+        }
+        return update.hasCallbackQuery() ? callbackUpdateTimer : otherUpdateTimer;
+    }
+
+    private Timer updateTimer(String type) {
+        return Timer.builder("bot.update")
+                .description("Time from receiving an update until it has been handled")
+                .tag("type", type)
+                .register(meterRegistry);
     }
 }
@@ -1,23 +1,40 @@
 package com.telegram.bot;
 
+import com.telegram.config.TelegramBotConfig;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
 import org.telegram.telegrambots.meta.TelegramBotsApi;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
 import org.telegram.telegrambots.updatesreceivers.DefaultBotSession;
 
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
 @Component
 @Slf4j
 public class TelegramBotInitializer {
+    private static final String TELEGRAM_API_URL = "https://api.telegram.org";
+
     private final TelegramBot telegramBot;
-    public TelegramBotInitializer(TelegramBot telegramBot) {
+    private final TelegramBotConfig telegramBotConfig;
+
+    public TelegramBotInitializer(TelegramBot telegramBot, TelegramBotConfig telegramBotConfig) {
         this.telegramBot = telegramBot;
+        this.telegramBotConfig = telegramBotConfig;
     }
 
     @EventListener(ContextRefreshedEvent.class)
     public void init() throws TelegramApiException {
+        if (telegramBotConfig.getMode() == TelegramBotConfig.Mode.WEBHOOK) {
+            registerWebhook();
+            return;
+        }
+
         TelegramBotsApi telegramBotsApi = new TelegramBotsApi(DefaultBotSession.class);
         try{
             telegramBotsApi.registerBot(telegramBot);
@@ -27,4 +44,36 @@ public class TelegramBotInitializer {
             throw ex;
         }
     }
+
+    private void registerWebhook() throws TelegramApiException {
+        String secretToken = telegramBotConfig.getWebhook().getSecretToken();
+        if (secretToken == null || secretToken.isBlank()) {
+            // Without it anyone who finds the URL could post updates as any user
+            throw new IllegalStateException(
+                    "telegram.bot.webhook.secret-token (TELEGRAM_BOT_WEBHOOK_SECRET) is required in webhook mode");
+        }
+        String webhookUrl = telegramBotConfig.getUrl() + telegramBotConfig.getWebhook().getPath();
+
+        Map<String, Object> request = new HashMap<>();
+        request.put("url", webhookUrl);
+        request.put("allowed_updates", List.of("message", "callback_query"));
+        request.put("secret_token", secretToken);
+
+        try {
+            Map<?, ?> response = RestClient.create(TELEGRAM_API_URL)
+                    .post()
+                    .uri("/bot{token}/setWebhook", telegramBotConfig.getToken())
+                    .body(request)
+                    .retrieve()
+                    .body(Map.class);
+
+            if (response == null || !Boolean.TRUE.equals(response.get("ok"))) {
+                throw new TelegramApiException("setWebhook rejected: " + response);
+            }
+            log.info("Bot webhook registered at {}", webhookUrl);
+        } catch (RestClientException ex) {
+            log.error("Error registering webhook: {}", ex.getMessage());
+            throw new TelegramApiException("Unable to register webhook", ex);
+        }
+    }
 }
@@ -0,0 +1,56 @@
+package com.telegram.bot;
+
+import com.telegram.config.TelegramBotConfig;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
+/**
+ * Receives updates pushed by Telegram when the bot runs with {@code telegram.bot.mode: webhook}
+ * and feeds them into the same handler as long polling.
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "telegram.bot", name = "mode", havingValue = "webhook")
+public class TelegramWebhookController {
+
+    static final String SECRET_TOKEN_HEADER = "X-Telegram-Bot-Api-Secret-Token";
+
+    private final TelegramBot telegramBot;
+    private final TelegramBotConfig telegramBotConfig;
+
+    @PostMapping("${telegram.bot.webhook.path:/telegram/webhook}")
+    public ResponseEntity<Void> onUpdate(@RequestHeader(value = SECRET_TOKEN_HEADER, required = false) String secretToken,
+                                         @RequestBody Update update) {
+        if (!isTrusted(secretToken)) {
+            log.warn("Rejected webhook update {} with invalid secret token", update.getUpdateId());
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+
+        // The dispatcher queues the update, so Telegram gets its 200 straight away
+        telegramBot.onUpdateReceived(update);
+        return ResponseEntity.ok().build();
+    }
+
+    private boolean isTrusted(String secretToken) {
+        String expected = telegramBotConfig.getWebhook().getSecretToken();
+        // Startup refuses webhook mode without a secret, so a missing one never means "trust everyone"
+        if (expected == null || expected.isBlank()) {
+            return false;
+        }
+        return secretToken != null && MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.UTF_8),
+                secretToken.getBytes(StandardCharsets.UTF_8));
+    }
+}
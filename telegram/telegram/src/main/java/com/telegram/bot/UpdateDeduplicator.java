@@ -0,0 +1,147 @@
+package com.telegram.bot;
+
+import com.telegram.config.TelegramBotConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.objects.CallbackQuery;
+import org.telegram.telegrambots.meta.api.objects.MaybeInaccessibleMessage;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Recognises updates that were already handled, so redeliveries and double taps are
+ * dropped before they reach a handler.
+ * <p>
+ * Two fixed size windows, both updated with compare-and-set only:
+ * <ul>
+ *     <li>Update ids. Slot {@code updateId & mask} holds the newest id seen with those
+ *     low bits. The same id is a redelivery, and an id older than the slot's is more
+ *     than a window behind and treated as one too. An id more than
+ *     {@code update-reset-distance} below the slot's starts a new sequence instead:
+ *     Telegram picks a random update_id after a week without updates.</li>
+ *     <li>Callback taps, keyed by chat, message id, the message's edit date and the
+ *     button data. Two taps on the same button before the message has been edited
+ *     share a key, while the same button shown again after an edit gets a new one.
+ *     Keys expire after {@code callback-time-to-live}.</li>
+ * </ul>
+ * Slots are overwritten as the windows advance, so memory stays fixed. Both windows
+ * live in memory only; after a restart the booking constraints are what stop repeats.
+ */
+@Slf4j
+@Component
+public class UpdateDeduplicator {
+
+    private final AtomicLongArray updateIds;
+    private final int updateMask;
+    private final long updateResetDistance;
+    private final AtomicReferenceArray<Tap> taps;
+    private final int tapMask;
+    private final long tapTimeToLiveNanos;
+
+    private final LongAdder duplicateUpdates = new LongAdder();
+    private final LongAdder duplicateTaps = new LongAdder();
+
+    public UpdateDeduplicator(TelegramBotConfig telegramBotConfig) {
+        TelegramBotConfig.Deduplication config = telegramBotConfig.getDeduplication();
+        int updateWindow = powerOfTwo(config.getUpdateWindow());
+        int tapWindow = powerOfTwo(config.getCallbackWindow());
+        this.updateIds = new AtomicLongArray(updateWindow);
+        this.updateMask = updateWindow - 1;
+        this.updateResetDistance = config.getUpdateResetDistance();
+        this.taps = new AtomicReferenceArray<>(tapWindow);
+        this.tapMask = tapWindow - 1;
+        this.tapTimeToLiveNanos = config.getCallbackTimeToLive().toNanos();
+    }
+
+    /**
+     * Records the update and returns whether it, or the same callback tap, was seen before.
+     */
+    public boolean isDuplicate(Update update) {
+        if (!markUpdate(update.getUpdateId())) {
+            duplicateUpdates.increment();
+            log.debug("Dropping redelivered update {}", update.getUpdateId());
+            return true;
+        }
+
+        if (update.hasCallbackQuery() && !markTap(update.getCallbackQuery())) {
+            duplicateTaps.increment();
+            log.debug("Dropping repeated tap in update {}", update.getUpdateId());
+            return true;
+        }
+        return false;
+    }
+
+    public long getDuplicateUpdates() {
+        return duplicateUpdates.sum();
+    }
+
+    public long getDuplicateTaps() {
+        return duplicateTaps.sum();
+    }
+
+    private boolean markUpdate(long updateId) {
+        int slot = (int) (updateId & updateMask);
+        while (true) {
+            long seen = updateIds.get(slot);
+            if (seen >= updateId && seen - updateId <= updateResetDistance) {
+                return false;
+            }
+            if (updateIds.compareAndSet(slot, seen, updateId)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean markTap(CallbackQuery query) {
+        long key = tapKey(query);
+        int slot = (int) (key & tapMask);
+        long now = System.nanoTime();
+        Tap tap = new Tap(key, now + tapTimeToLiveNanos);
+
+        while (true) {
+            Tap seen = taps.get(slot);
+            if (seen != null && seen.key() == key && seen.expiresAt() - now > 0) {
+                return false;
+            }
+            // An expired tap or another key's tap in the slot is simply replaced
+            if (taps.compareAndSet(slot, seen, tap)) {
+                return true;
+            }
+        }
+    }
+
+    private static long tapKey(CallbackQuery query) {
+        MaybeInaccessibleMessage message = query.getMessage();
+        long key;
+        if (message != null) {
+            key = mix(message.getChatId());
+            key = mix(key ^ Objects.hashCode(message.getMessageId()));
+            // Only an accessible message tells when it was last edited
+            Integer editDate = message instanceof Message accessible ? accessible.getEditDate() : null;
+            key = mix(key ^ Objects.hashCode(editDate));
+        } else {
+            // Buttons on inline mode messages come with the inline message id instead
+            key = mix(Objects.hashCode(query.getInlineMessageId()));
+        }
+        return mix(key ^ Objects.hashCode(query.getData()));
+    }
+
+    // Finalizer from SplitMix64, spreads the combined fields over all 64 bits
+    private static long mix(long value) {
+        value = (value ^ (value >>> 30)) * 0xbf58476d1ce4e5b9L;
+        value = (value ^ (value >>> 27)) * 0x94d049bb133111ebL;
+        return value ^ (value >>> 31);
+    }
+
+    private static int powerOfTwo(int size) {
+        return Integer.highestOneBit(Math.max(size, 2) - 1) << 1;
+    }
+
+    private record Tap(long key, long expiresAt) {
+    }
+}
@@ -0,0 +1,119 @@
+package com.telegram.bot;
+
+import com.telegram.config.TelegramBotConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Hands updates off the polling thread to virtual threads. Updates are striped into
+ * serial lanes by chat id, so one chat's updates are always handled in the order they
+ * arrived while different chats are handled concurrently.
+ */
+@Slf4j
+@Component
+public class UpdateDispatcher {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final SerialLane[] lanes;
+
+    private final LongAdder dispatchedUpdates = new LongAdder();
+    private final LongAccumulator maxQueueDepth = new LongAccumulator(Math::max, 0);
+
+    public UpdateDispatcher(TelegramBotConfig telegramBotConfig) {
+        int concurrency = telegramBotConfig.getDispatcher().getConcurrency();
+        this.lanes = new SerialLane[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            lanes[i] = new SerialLane();
+        }
+        log.info("Update dispatcher started with {} lanes", concurrency);
+    }
+
+    public void dispatch(Update update, Consumer<Update> handler) {
+        long chatId = chatId(update);
+        SerialLane lane = lanes[Math.floorMod(Long.hashCode(chatId), lanes.length)];
+        lane.submit(() -> handler.accept(update));
+        dispatchedUpdates.increment();
+    }
+
+    public int getQueueDepth() {
+        int depth = 0;
+        for (SerialLane lane : lanes) {
+            depth += lane.size.get();
+        }
+        return depth;
+    }
+
+    public long getMaxQueueDepth() {
+        return maxQueueDepth.get();
+    }
+
+    public long getDispatchedUpdates() {
+        return dispatchedUpdates.sum();
+    }
+
+    public int getConcurrency() {
+        return lanes.length;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Update dispatcher stopped with {} updates still queued", getQueueDepth());
+            executor.shutdownNow();
+        }
+    }
+
+    private long chatId(Update update) {
+        if (update.hasMessage()) {
+            return update.getMessage().getChatId();
+        }
+        if (update.hasCallbackQuery()) {
+            var callbackQuery = update.getCallbackQuery();
+            return callbackQuery.getMessage() != null
+                    ? callbackQuery.getMessage().getChatId()
+                    : callbackQuery.getFrom().getId();
+        }
+        return 0L;
+    }
+
+    private final class SerialLane {
+
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger size = new AtomicInteger();
+
+        void submit(Runnable task) {
+            tasks.add(task);
+            int depth = size.incrementAndGet();
+            maxQueueDepth.accumulate(depth);
+
+            // Only the submitter that finds the lane idle starts a drain, so a lane never runs twice at once
+            if (depth == 1) {
+                executor.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            do {
+                Runnable task = tasks.poll();
+                try {
+                    task.run();
+                } catch (Exception e) {
+                    log.error("Error processing update: {}", e.getMessage(), e);
+                }
+            } while (size.decrementAndGet() > 0);
+        }
+    }
+}
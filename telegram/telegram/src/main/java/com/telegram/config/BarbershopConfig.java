@@ -5,6 +5,7 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
 import java.time.DayOfWeek;
+import java.time.Duration;
 import java.time.LocalTime;
 import java.util.List;
 
@@ -24,8 +25,14 @@ public class BarbershopConfig {
     private Integer minAdvanceBookingHours;
     private Integer bookingWindowDays;
     private Integer depositPercentage;
+    private Duration catalogRefreshInterval;
+    private Integer myBookingsPageSize = 5;
 
     private Loyalty loyalty = new Loyalty();
+    private Reminders reminders = new Reminders();
+    private CustomerCache customerCache = new CustomerCache();
+    private BookingCode bookingCode = new BookingCode();
+    private BookingSessions bookingSessions = new BookingSessions();
 
     @Data
     public static class Loyalty {
@@ -36,4 +43,30 @@ public class BarbershopConfig {
         private Integer birthdayDiscountPercent;
         private List<Integer> milestones;
     }
+
+    @Data
+    public static class Reminders {
+        private List<Duration> offsets = List.of(Duration.ofHours(24), Duration.ofHours(1));
+        private Duration lateGrace = Duration.ofMinutes(10);
+        // Wait before a reminder whose send failed is claimed and sent again
+        private Duration retryDelay = Duration.ofMinutes(5);
+    }
+
+    @Data
+    public static class CustomerCache {
+        private Integer maxSize = 10_000;
+        private Duration timeToLive = Duration.ofMinutes(30);
+    }
+
+    @Data
+    public static class BookingCode {
+        private Integer nodeId = 0;
+    }
+
+    @Data
+    public static class BookingSessions {
+        private Integer maxSize = 10_000;
+        // Drafts untouched for this long are dropped, every booking step refreshes it
+        private Duration idleTimeout = Duration.ofMinutes(15);
+    }
 }
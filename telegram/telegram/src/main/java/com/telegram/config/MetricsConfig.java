@@ -0,0 +1,110 @@
+package com.telegram.config;
+
+import com.telegram.bot.MessageEditor;
+import com.telegram.bot.UpdateDeduplicator;
+import com.telegram.bot.UpdateDispatcher;
+import com.telegram.service.BarberServiceService;
+import com.telegram.service.BookingSessionService;
+import com.telegram.service.CustomerService;
+import com.telegram.service.MessageSender;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Exposes the counters our components already keep as meters. They are read when the
+ * registry is scraped, so nothing is added to the update path.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public MeterBinder updateDispatcherMetrics(UpdateDispatcher dispatcher) {
+        return registry -> {
+            Gauge.builder("bot.dispatcher.queue.depth", dispatcher, UpdateDispatcher::getQueueDepth)
+                    .description("Updates waiting in the dispatcher lanes")
+                    .register(registry);
+            Gauge.builder("bot.dispatcher.queue.max", dispatcher, UpdateDispatcher::getMaxQueueDepth)
+                    .description("Deepest a single dispatcher lane has been")
+                    .register(registry);
+            Gauge.builder("bot.dispatcher.lanes", dispatcher, UpdateDispatcher::getConcurrency)
+                    .register(registry);
+            FunctionCounter.builder("bot.dispatcher.updates", dispatcher, UpdateDispatcher::getDispatchedUpdates)
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder updateDeduplicatorMetrics(UpdateDeduplicator deduplicator) {
+        return registry -> {
+            FunctionCounter.builder("bot.updates.duplicate", deduplicator, UpdateDeduplicator::getDuplicateUpdates)
+                    .description("Redelivered updates dropped before handling")
+                    .tag("kind", "update_id")
+                    .register(registry);
+            FunctionCounter.builder("bot.updates.duplicate", deduplicator, UpdateDeduplicator::getDuplicateTaps)
+                    .description("Repeated callback taps dropped before handling")
+                    .tag("kind", "callback")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder messageSenderMetrics(MessageSender sender, MessageEditor editor) {
+        return registry -> {
+            for (MessageSender.Priority priority : MessageSender.Priority.values()) {
+                Gauge.builder("telegram.outbound.queue.depth", sender, s -> s.getQueueDepth(priority))
+                        .tag("priority", priority.name().toLowerCase())
+                        .register(registry);
+            }
+            FunctionCounter.builder("telegram.outbound.calls", sender, MessageSender::getSentCalls)
+                    .tag("outcome", "sent")
+                    .register(registry);
+            FunctionCounter.builder("telegram.outbound.calls", sender, MessageSender::getFailedCalls)
+                    .tag("outcome", "failed")
+                    .register(registry);
+            FunctionCounter.builder("telegram.outbound.calls", sender, MessageSender::getRetriedCalls)
+                    .tag("outcome", "retried")
+                    .register(registry);
+            Gauge.builder("telegram.outbound.latency.max", sender, MessageSender::getMaxSendLatencyMillis)
+                    .description("Longest time from queueing a call until Telegram accepted it")
+                    .baseUnit("milliseconds")
+                    .register(registry);
+            FunctionCounter.builder("telegram.outbound.edits.skipped", editor, MessageEditor::getSkippedEdits)
+                    .description("Message edits not sent because the content was unchanged")
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    public MeterBinder cacheMetrics(BarberServiceService barberServiceService, CustomerService customerService,
+                                    BookingSessionService bookingSessionService) {
+        return registry -> {
+            FunctionCounter.builder("cache.gets", barberServiceService, BarberServiceService::getCacheHits)
+                    .tags("cache", "service_catalog", "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", barberServiceService, BarberServiceService::getCacheMisses)
+                    .tags("cache", "service_catalog", "result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", customerService, CustomerService::getCacheHits)
+                    .tags("cache", "customers", "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", customerService, CustomerService::getCacheMisses)
+                    .tags("cache", "customers", "result", "miss")
+                    .register(registry);
+            Gauge.builder("cache.size", customerService, CustomerService::getCacheSize)
+                    .tag("cache", "customers")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", bookingSessionService, BookingSessionService::getDraftHits)
+                    .tags("cache", "booking_drafts", "result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("cache.gets", bookingSessionService, BookingSessionService::getDraftMisses)
+                    .tags("cache", "booking_drafts", "result", "miss")
+                    .register(registry);
+            Gauge.builder("cache.size", bookingSessionService, BookingSessionService::getDraftCount)
+                    .tag("cache", "booking_drafts")
+                    .register(registry);
+        };
+    }
+}
@@ -4,10 +4,72 @@ import lombok.Data;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+
 @Data
 @Configuration
 @ConfigurationProperties(prefix = "telegram.bot")
 public class TelegramBotConfig {
     private String token;
     private String username;
+    private String url;
+    private Mode mode = Mode.POLLING;
+
+    private Dispatcher dispatcher = new Dispatcher();
+    private Deduplication deduplication = new Deduplication();
+    private Webhook webhook = new Webhook();
+    private Outbound outbound = new Outbound();
+    private Tracing tracing = new Tracing();
+
+    public enum Mode {
+        POLLING,
+        WEBHOOK
+    }
+
+    @Data
+    public static class Dispatcher {
+        // Number of serial lanes; updates from one chat always land in the same lane
+        private Integer concurrency = 16;
+    }
+
+    @Data
+    public static class Deduplication {
+        // Recent update ids remembered, rounded up to a power of two
+        private Integer updateWindow = 4096;
+        // An update id this far below the one remembered in its slot starts a new sequence
+        private Long updateResetDistance = 1_000_000L;
+        // Recent callback taps remembered, rounded up to a power of two
+        private Integer callbackWindow = 4096;
+        // How long a tap on the same button of the same message version counts as a repeat
+        private Duration callbackTimeToLive = Duration.ofSeconds(30);
+    }
+
+    @Data
+    public static class Webhook {
+        private String path = "/telegram/webhook";
+        // Sent back by Telegram in X-Telegram-Bot-Api-Secret-Token on every webhook call, required in webhook mode
+        private String secretToken;
+    }
+
+    @Data
+    public static class Outbound {
+        // Telegram allows roughly 30 messages per second across all chats
+        private Integer globalMessagesPerSecond = 30;
+        // ...and about one message per second to the same chat
+        private Long perChatIntervalMillis = 1000L;
+        private Integer maxRetries = 3;
+        // Last content put on each message, so edits that change nothing can be skipped
+        private Integer renderedMessagesMaxSize = 10_000;
+        private Duration renderedMessagesTimeToLive = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class Tracing {
+        private Boolean enabled = false;
+        // Share of traces kept regardless of duration
+        private Double sampleRate = 0.0;
+        // Traces slower than this are always kept
+        private Duration slowThreshold = Duration.ofMillis(500);
+        private Integer bufferSize = 256;
+    }
 }
@@ -11,6 +11,7 @@ import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "barber_services")
+@EntityListeners(BarberServiceChangeListener.class)
 @Data
 @Builder
 @NoArgsConstructor
@@ -0,0 +1,26 @@
+package com.telegram.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publishes a {@link BarberServiceChangedEvent} whenever a service is written through JPA,
+ * so the cached catalog can be refreshed once the transaction commits.
+ */
+@Component
+@RequiredArgsConstructor
+public class BarberServiceChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(BarberService service) {
+        eventPublisher.publishEvent(new BarberServiceChangedEvent(service.getId()));
+    }
+}
@@ -0,0 +1,4 @@
+package com.telegram.entity;
+
+public record BarberServiceChangedEvent(Long serviceId) {
+}
@@ -12,18 +12,31 @@ import java.time.LocalDateTime;
 import java.time.LocalTime;
 
 @Entity
-@Table(name = "bookings")
+// One index per access path: a day's schedule and slot checks, a customer's bookings in order,
+// the completion and reminder sweeps by status, and the loyalty accrual by completion run
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_date_status_start", columnList = "booking_date, status, start_time"),
+        @Index(name = "idx_bookings_customer_status_date", columnList = "customer_chat_id, status, booking_date, start_time"),
+        @Index(name = "idx_bookings_status_date", columnList = "status, booking_date"),
+        @Index(name = "idx_bookings_completion_run", columnList = "completion_run")
+}, uniqueConstraints = {
+        // Named, so a violation can be told apart from the other by its constraint name
+        @UniqueConstraint(name = Booking.BOOKING_CODE_CONSTRAINT, columnNames = "booking_code"),
+        @UniqueConstraint(name = Booking.ACTIVE_SLOT_CONSTRAINT, columnNames = "active_slot")
+})
 @Data
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
 public class Booking {
 
+    public static final String BOOKING_CODE_CONSTRAINT = "uk_bookings_booking_code";
+    public static final String ACTIVE_SLOT_CONSTRAINT = "uk_bookings_active_slot";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(unique = true)
     private String bookingCode;
 
     private Long customerChatId;
@@ -36,6 +49,10 @@ public class Booking {
 
     private LocalTime endTime;
 
+    // Start of the slot while the booking holds it, cleared on cancel and completion.
+    // The unique constraint stops two nodes from booking the same start time.
+    private LocalDateTime activeSlot;
+
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
 
@@ -47,9 +64,15 @@ public class Booking {
 
     private Long paymentId;
 
-    private Boolean dayBeforeReminderSent = false;
+    // Smallest reminder offset already delivered, reminders go out from the largest offset down
+    private Integer lastReminderOffsetMinutes;
 
-    private Boolean oneHourReminderSent = false;
+    // Offset stored before the current claim, restored when the claimed reminder could not be sent
+    private Integer previousReminderOffsetMinutes;
+
+    // Claim of the reminder run that last won this booking, read back to find the rows it won
+    @Column(length = 36)
+    private String reminderClaim;
 
     private LocalDateTime createdAt;
 
@@ -57,6 +80,10 @@ public class Booking {
 
     private LocalDateTime completedAt;
 
+    // Completion run that completed the booking, loyalty is accrued once per run
+    @Column(length = 36)
+    private String completionRun;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -9,7 +9,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "customers")
+@Table(name = "customers", indexes = {
+        @Index(name = "idx_customers_birthday", columnList = "birthday_month, birthday_day")
+})
 @Data
 @Builder
 @NoArgsConstructor
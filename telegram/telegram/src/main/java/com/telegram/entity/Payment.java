@@ -10,7 +10,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+        @Index(name = "idx_payments_booking", columnList = "booking_id"),
+        @Index(name = "idx_payments_payment_intent", columnList = "stripe_payment_intent_id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -2,11 +2,18 @@ package com.telegram.repository;
 
 import com.telegram.entity.Booking;
 import com.telegram.entity.Booking.BookingStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -15,32 +22,103 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
 
     Optional<Booking> findByBookingCode(String bookingCode);
 
-    List<Booking> findByCustomerChatIdAndStatus(Long customerChatId, BookingStatus status);
-
-    List<Booking> findByBookingDateAndStatus(LocalDate date, BookingStatus status);
+    @Query("""
+            select b.id as id, b.bookingCode as bookingCode, b.bookingDate as bookingDate,
+                   b.startTime as startTime, b.status as status,
+                   s.name as serviceName, s.price as price
+            from Booking b left join BarberService s on s.id = b.serviceId
+            where b.customerChatId = :chatId and b.status in :statuses
+            order by b.bookingDate, b.startTime, b.id
+            """)
+    List<BookingSummary> findSummaries(
+            @Param("chatId") Long customerChatId,
+            @Param("statuses") Collection<BookingStatus> statuses,
+            Limit limit
+    );
 
-    List<Booking> findByBookingDateAndStatusAndStartTimeBetween(
-            LocalDate date,
-            BookingStatus status,
-            LocalTime startTime,
-            LocalTime endTime
+    /**
+     * The page after the booking at {@code date}, {@code time} with {@code id}. Seeks
+     * past the previous page instead of skipping over it, so later pages cost the same.
+     */
+    @Query("""
+            select b.id as id, b.bookingCode as bookingCode, b.bookingDate as bookingDate,
+                   b.startTime as startTime, b.status as status,
+                   s.name as serviceName, s.price as price
+            from Booking b left join BarberService s on s.id = b.serviceId
+            where b.customerChatId = :chatId and b.status in :statuses
+              and (b.bookingDate > :date
+                   or (b.bookingDate = :date and (b.startTime > :time or (b.startTime = :time and b.id > :id))))
+            order by b.bookingDate, b.startTime, b.id
+            """)
+    List<BookingSummary> findSummariesAfter(
+            @Param("chatId") Long customerChatId,
+            @Param("statuses") Collection<BookingStatus> statuses,
+            @Param("date") LocalDate date,
+            @Param("time") LocalTime time,
+            @Param("id") Long id,
+            Limit limit
     );
 
-    List<Booking> findByStatusAndDayBeforeReminderSentFalseAndBookingDate(
-            BookingStatus status,
-            LocalDate date
+    List<Booking> findByBookingDateAndStatusIn(LocalDate date, Collection<BookingStatus> statuses);
+
+    List<Booking> findByBookingDateBetweenAndStatusIn(
+            LocalDate startDate,
+            LocalDate endDate,
+            Collection<BookingStatus> statuses
     );
 
-    List<Booking> findByStatusAndOneHourReminderSentFalseAndBookingDateAndStartTimeBetween(
-            BookingStatus status,
-            LocalDate date,
-            LocalTime startTime,
-            LocalTime endTime
+    List<Booking> findByStatusAndBookingDateGreaterThanEqual(BookingStatus status, LocalDate date);
+
+    /**
+     * Marks the reminder for {@code offsetMinutes} as sent on every booking that still
+     * needs it and tags those rows with {@code claim}. Row locks make concurrent claims
+     * for the same booking and offset succeed only once.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update Booking b
+            set b.previousReminderOffsetMinutes = b.lastReminderOffsetMinutes,
+                b.lastReminderOffsetMinutes = :offsetMinutes, b.reminderClaim = :claim
+            where b.id in :ids and b.status = :confirmed
+              and (b.lastReminderOffsetMinutes is null or b.lastReminderOffsetMinutes > :offsetMinutes)
+            """)
+    int claimReminders(
+            @Param("ids") Collection<Long> ids,
+            @Param("confirmed") BookingStatus confirmed,
+            @Param("offsetMinutes") Integer offsetMinutes,
+            @Param("claim") String claim
     );
 
-    boolean existsByBookingDateAndStartTimeAndStatus(
-            LocalDate date,
-            LocalTime startTime,
-            BookingStatus status
+    List<Booking> findByIdInAndReminderClaim(Collection<Long> ids, String reminderClaim);
+
+    /**
+     * Hands back the reminders {@code claim} won but could not deliver, restoring the
+     * offset stored before the claim so a later claim picks them up again.
+     */
+    @Transactional
+    @Modifying
+    @Query("""
+            update Booking b
+            set b.lastReminderOffsetMinutes = b.previousReminderOffsetMinutes, b.reminderClaim = null
+            where b.id in :ids and b.reminderClaim = :claim
+            """)
+    int releaseReminders(@Param("ids") Collection<Long> ids, @Param("claim") String claim);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update Booking b
+            set b.status = :completed, b.completedAt = :completedAt, b.completionRun = :run, b.activeSlot = null
+            where b.status = :confirmed
+              and (b.bookingDate < :today or (b.bookingDate = :today and b.endTime <= :time))
+            """)
+    int completeEndedBookings(
+            @Param("confirmed") BookingStatus confirmed,
+            @Param("completed") BookingStatus completed,
+            @Param("today") LocalDate today,
+            @Param("time") LocalTime time,
+            @Param("completedAt") LocalDateTime completedAt,
+            @Param("run") String run
     );
 }
@@ -0,0 +1,28 @@
+package com.telegram.repository;
+
+import com.telegram.entity.Booking.BookingStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * The columns My Bookings shows, read in one query together with the service. The
+ * service name and price are null if the service has since been deleted.
+ */
+public interface BookingSummary {
+
+    Long getId();
+
+    String getBookingCode();
+
+    LocalDate getBookingDate();
+
+    LocalTime getStartTime();
+
+    BookingStatus getStatus();
+
+    String getServiceName();
+
+    BigDecimal getPrice();
+}
@@ -0,0 +1,19 @@
+package com.telegram.repository;
+
+/**
+ * Counter columns of a customer, read back after an in-database increment.
+ */
+public interface CustomerCounters {
+
+    Integer getLoyaltyPoints();
+
+    Integer getLifetimeLoyaltyPoints();
+
+    Integer getTotalBookings();
+
+    Integer getCompletedBookings();
+
+    Integer getCancelledBookings();
+
+    Integer getLastBirthdayRewardYear();
+}
@@ -2,12 +2,126 @@ package com.telegram.repository;
 
 import com.telegram.entity.Customer;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
     List<Customer> findByBirthdayDayAndBirthdayMonth(Integer day, Integer month);
+
+    Optional<CustomerCounters> findCountersByTelegramChatId(Long telegramChatId);
+
+    /**
+     * Creates the customer unless the chat is already known. The duplicate key branch is
+     * a no-op, so an existing customer's username and counters are left untouched.
+     */
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO customers (telegram_chat_id, telegram_username, birthday_prompted,
+                    loyalty_points, lifetime_loyalty_points, total_bookings, completed_bookings,
+                    cancelled_bookings, no_show_bookings, created_at, updated_at)
+            VALUES (:chatId, :username, false, 0, 0, 0, 0, 0, 0, :now, :now)
+            ON DUPLICATE KEY UPDATE telegram_chat_id = telegram_chat_id
+            """)
+    int insertIfAbsent(@Param("chatId") Long chatId, @Param("username") String username, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update Customer c set c.birthdayPrompted = true, c.updatedAt = :now where c.telegramChatId = :chatId")
+    int markBirthdayPrompted(@Param("chatId") Long chatId, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update Customer c
+            set c.birthdayDay = :day,
+                c.birthdayMonth = :month,
+                c.birthdayPrompted = true,
+                c.updatedAt = :now
+            where c.telegramChatId = :chatId
+            """)
+    int updateBirthday(@Param("chatId") Long chatId,
+                       @Param("day") int day,
+                       @Param("month") int month,
+                       @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update Customer c set c.totalBookings = c.totalBookings + 1, c.updatedAt = :now where c.telegramChatId = :chatId")
+    int incrementTotalBookings(@Param("chatId") Long chatId, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update Customer c set c.completedBookings = c.completedBookings + 1, c.updatedAt = :now where c.telegramChatId = :chatId")
+    int incrementCompletedBookings(@Param("chatId") Long chatId, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update Customer c set c.cancelledBookings = c.cancelledBookings + 1, c.updatedAt = :now where c.telegramChatId = :chatId")
+    int incrementCancelledBookings(@Param("chatId") Long chatId, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update Customer c
+            set c.loyaltyPoints = c.loyaltyPoints + :points,
+                c.lifetimeLoyaltyPoints = c.lifetimeLoyaltyPoints + :points,
+                c.updatedAt = :now
+            where c.telegramChatId = :chatId
+            """)
+    int addLoyaltyPoints(@Param("chatId") Long chatId, @Param("points") int points, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("""
+            update Customer c
+            set c.loyaltyPoints = c.loyaltyPoints + :points,
+                c.lifetimeLoyaltyPoints = c.lifetimeLoyaltyPoints + :points,
+                c.lastBirthdayRewardYear = :year,
+                c.updatedAt = :now
+            where c.telegramChatId = :chatId
+              and (c.lastBirthdayRewardYear is null or c.lastBirthdayRewardYear < :year)
+            """)
+    int awardBirthdayPoints(@Param("chatId") Long chatId,
+                            @Param("points") int points,
+                            @Param("year") int year,
+                            @Param("now") LocalDateTime now);
+
+    /**
+     * Credits every customer with the bookings completed by completion {@code run}. The point
+     * columns are assigned before completed_bookings because MySQL evaluates SET left to right.
+     */
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE customers c
+            SET c.loyalty_points = c.loyalty_points
+                    + CASE WHEN c.completed_bookings = 0 THEN :firstBookingBonus ELSE 0 END
+                    + :pointsPerBooking * (SELECT COUNT(*) FROM bookings b
+                        WHERE b.customer_chat_id = c.telegram_chat_id AND b.completion_run = :run),
+                c.lifetime_loyalty_points = c.lifetime_loyalty_points
+                    + CASE WHEN c.completed_bookings = 0 THEN :firstBookingBonus ELSE 0 END
+                    + :pointsPerBooking * (SELECT COUNT(*) FROM bookings b
+                        WHERE b.customer_chat_id = c.telegram_chat_id AND b.completion_run = :run),
+                c.completed_bookings = c.completed_bookings
+                    + (SELECT COUNT(*) FROM bookings b
+                        WHERE b.customer_chat_id = c.telegram_chat_id AND b.completion_run = :run),
+                c.updated_at = CURRENT_TIMESTAMP
+            WHERE c.telegram_chat_id IN (SELECT b.customer_chat_id FROM bookings b
+                WHERE b.completion_run = :run)
+            """)
+    int accrueCompletedBookings(
+            @Param("run") String run,
+            @Param("pointsPerBooking") int pointsPerBooking,
+            @Param("firstBookingBonus") int firstBookingBonus
+    );
 }
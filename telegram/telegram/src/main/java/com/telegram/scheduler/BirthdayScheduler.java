@@ -3,12 +3,17 @@ package com.telegram.scheduler;
 import com.telegram.entity.Customer;
 import com.telegram.service.BirthdayService;
 import com.telegram.service.MessageSender;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.objects.Message;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @Slf4j
 @Component
@@ -17,25 +22,39 @@ public class BirthdayScheduler {
 
     private final BirthdayService birthdayService;
     private final MessageSender messageSender;
+    private final MeterRegistry meterRegistry;
 
     // Run every day at 9 AM
     @Scheduled(cron = "0 0 9 * * *")
     public void sendBirthdayRewards() {
-        log.info("Running birthday rewards job");
-
-        List<Customer> customers = birthdayService.getCustomersWithBirthdayToday();
-        log.info("Found {} customers with birthday today", customers.size());
-
-        for (Customer customer : customers) {
-            try {
-                String message = birthdayService.buildBirthdayMessage(customer);
-                messageSender.sendMessage(customer.getTelegramChatId(), message);
-                birthdayService.awardBirthdayReward(customer);
-                log.info("Sent birthday reward to customer {}", customer.getTelegramChatId());
-            } catch (Exception e) {
-                log.error("Failed to send birthday reward to customer {}: {}",
-                        customer.getTelegramChatId(), e.getMessage());
+        meterRegistry.timer("scheduler.run", "job", "birthdays").record(() -> {
+            log.info("Running birthday rewards job");
+
+            List<Customer> customers = birthdayService.getCustomersWithBirthdayToday();
+            log.info("Found {} customers with birthday today", customers.size());
+
+            Map<Customer, CompletableFuture<Message>> sends = new LinkedHashMap<>();
+            for (Customer customer : customers) {
+                try {
+                    String message = birthdayService.buildBirthdayMessage(customer);
+                    sends.put(customer, messageSender.sendMessage(customer.getTelegramChatId(), message));
+                } catch (Exception e) {
+                    log.error("Failed to build birthday message for customer {}: {}",
+                            customer.getTelegramChatId(), e.getMessage());
+                }
             }
-        }
+
+            // The reward is only credited once the greeting announcing it has gone out
+            sends.forEach((customer, send) -> {
+                try {
+                    send.join();
+                    birthdayService.awardBirthdayReward(customer);
+                    log.info("Sent birthday reward to customer {}", customer.getTelegramChatId());
+                } catch (Exception e) {
+                    log.error("Failed to send birthday reward to customer {}: {}",
+                            customer.getTelegramChatId(), e.getMessage());
+                }
+            });
+        });
     }
 }
@@ -1,21 +1,19 @@
 package com.telegram.scheduler;
 
-import com.telegram.entity.Booking;
 import com.telegram.entity.Booking.BookingStatus;
-import com.telegram.entity.Customer;
 import com.telegram.repository.BookingRepository;
-import com.telegram.service.CustomerService;
 import com.telegram.service.LoyaltyService;
+import com.telegram.service.SlotOccupancyService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.util.List;
-import java.util.Optional;
+import java.util.UUID;
 
 @Slf4j
 @Component
@@ -23,62 +21,33 @@ import java.util.Optional;
 public class BookingCompletionScheduler {
 
     private final BookingRepository bookingRepository;
-    private final CustomerService customerService;
     private final LoyaltyService loyaltyService;
+    private final SlotOccupancyService slotOccupancyService;
+    private final MeterRegistry meterRegistry;
 
     // Run every 30 minutes
     @Scheduled(fixedRate = 1800000)
+    @Transactional
     public void completeBookings() {
-        log.info("Running booking completion job");
+        meterRegistry.timer("scheduler.run", "job", "booking_completion").record(() -> {
+            log.info("Running booking completion job");
 
-        LocalDateTime now = LocalDateTime.now();
-        LocalDate today = now.toLocalDate();
-        LocalTime currentTime = now.toLocalTime();
+            LocalDateTime now = LocalDateTime.now();
+            LocalDate today = now.toLocalDate();
+            // Tags the rows this run completes, so runs on other nodes never credit them
+            String run = UUID.randomUUID().toString();
 
-        // Get confirmed bookings from today that have ended
-        List<Booking> bookingsToComplete = bookingRepository
-                .findByBookingDateAndStatus(today, BookingStatus.CONFIRMED)
-                .stream()
-                .filter(booking -> booking.getEndTime().isBefore(currentTime))
-                .toList();
+            // Complete every confirmed booking that has ended, however far back it is
+            int completed = bookingRepository.completeEndedBookings(
+                    BookingStatus.CONFIRMED, BookingStatus.COMPLETED, today, now.toLocalTime(), now, run);
+            log.info("Completed {} bookings", completed);
 
-        // Also get confirmed bookings from past days
-        List<Booking> pastBookings = bookingRepository
-                .findByBookingDateAndStatus(today.minusDays(1), BookingStatus.CONFIRMED);
-
-        log.info("Found {} bookings to complete", bookingsToComplete.size() + pastBookings.size());
-
-        for (Booking booking : bookingsToComplete) {
-            completeBooking(booking);
-        }
-
-        for (Booking booking : pastBookings) {
-            completeBooking(booking);
-        }
-    }
-
-    private void completeBooking(Booking booking) {
-        try {
-            booking.setStatus(BookingStatus.COMPLETED);
-            booking.setCompletedAt(LocalDateTime.now());
-            bookingRepository.save(booking);
-
-            Optional<Customer> customerOpt = customerService.findByChatlId(booking.getCustomerChatId());
-
-            if (customerOpt.isPresent()) {
-                Customer customer = customerOpt.get();
-                boolean isFirstBooking = customer.getCompletedBookings() == 0;
-
-                // Increment completed bookings
-                loyaltyService.incrementCompletedBookings(customer);
-
-                // Award points silently
-                loyaltyService.awardBookingPoints(customer, isFirstBooking);
+            if (completed > 0) {
+                loyaltyService.accrueCompletedBookings(run);
             }
 
-            log.info("Completed booking {}", booking.getBookingCode());
-        } catch (Exception e) {
-            log.error("Failed to complete booking {}: {}", booking.getBookingCode(), e.getMessage());
-        }
+            // Past dates can never be offered again, drop their bitmaps
+            slotOccupancyService.evictBefore(today);
+        });
     }
 }
@@ -1,14 +1,27 @@
 package com.telegram.scheduler;
 
+import com.telegram.entity.BarberService;
 import com.telegram.entity.Booking;
 import com.telegram.service.MessageSender;
 import com.telegram.service.ReminderService;
+import com.telegram.service.ReminderService.Reminder;
+import jakarta.annotation.PreDestroy;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
+import org.telegram.telegrambots.meta.api.objects.Message;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Component
@@ -17,46 +30,92 @@ public class ReminderScheduler {
 
     private final ReminderService reminderService;
     private final MessageSender messageSender;
+    private final MeterRegistry meterRegistry;
 
-    // Run every day at 6 PM
-    @Scheduled(cron = "0 0 18 * * *")
-    public void sendDayBeforeReminders() {
-        log.info("Running day-before reminder job");
+    private Thread timer;
 
-        List<Booking> bookings = reminderService.getBookingsForDayBeforeReminder();
-        log.info("Found {} bookings for day-before reminder", bookings.size());
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reminderService.loadUpcomingReminders();
+        timer = Thread.ofPlatform().name("reminder-timer").daemon().start(this::run);
+    }
 
-        for (Booking booking : bookings) {
+    @PreDestroy
+    public void stop() {
+        if (timer != null) {
+            timer.interrupt();
+        }
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
             try {
-                String message = reminderService.buildDayBeforeReminderMessage(booking);
-                messageSender.sendMessage(booking.getCustomerChatId(), message);
-                reminderService.markDayBeforeReminderSent(booking);
-                log.info("Sent day-before reminder for booking {}", booking.getBookingCode());
+                sendReminders(reminderService.awaitDueReminders());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
             } catch (Exception e) {
-                log.error("Failed to send day-before reminder for booking {}: {}",
-                        booking.getBookingCode(), e.getMessage());
+                log.error("Reminder run failed: {}", e.getMessage(), e);
             }
         }
+        log.info("Reminder timer stopped");
     }
 
-    // Run every 10 minutes
-    @Scheduled(fixedRate = 600000)
-    public void sendOneHourReminders() {
-        log.info("Running one-hour reminder job");
+    private void sendReminders(List<Reminder> due) {
+        meterRegistry.timer("scheduler.run", "job", "reminders").record(() -> {
+            log.info("Running reminder job for {} due reminders", due.size());
+
+            Map<Duration, List<Long>> idsByOffset = due.stream()
+                    .collect(Collectors.groupingBy(Reminder::offset,
+                            Collectors.mapping(Reminder::bookingId, Collectors.toList())));
 
-        List<Booking> bookings = reminderService.getBookingsForOneHourReminder();
-        log.info("Found {} bookings for one-hour reminder", bookings.size());
+            idsByOffset.forEach((offset, ids) -> {
+                // Claimed before sending, so other instances with the same deadlines skip these
+                // bookings. Claims on reminders that fail to send are released for a retry.
+                List<Booking> batch = reminderService.claimReminders(ids, offset);
+                List<Long> delivered = dispatch(batch,
+                        (booking, service) -> reminderService.buildReminderMessage(booking, service, offset));
+                log.info("Sent {} of {} claimed reminders {} before start", delivered.size(), batch.size(), offset);
+
+                List<Booking> failed = batch.stream()
+                        .filter(booking -> !delivered.contains(booking.getId()))
+                        .toList();
+                if (!failed.isEmpty()) {
+                    reminderService.releaseReminders(failed, offset);
+                }
+            });
+        });
+    }
+
+    /**
+     * Renders and queues the whole batch at once, then waits for the outbound queue
+     * to deliver it. Returns the ids of the bookings whose reminder actually went out.
+     */
+    private List<Long> dispatch(List<Booking> bookings, BiFunction<Booking, BarberService, String> renderer) {
+        if (bookings.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, BarberService> services = reminderService.getServicesFor(bookings);
+        Map<Booking, CompletableFuture<Message>> sends = new LinkedHashMap<>();
 
         for (Booking booking : bookings) {
             try {
-                String message = reminderService.buildOneHourReminderMessage(booking);
-                messageSender.sendMessage(booking.getCustomerChatId(), message);
-                reminderService.markOneHourReminderSent(booking);
-                log.info("Sent one-hour reminder for booking {}", booking.getBookingCode());
+                String message = renderer.apply(booking, services.get(booking.getServiceId()));
+                sends.put(booking, messageSender.sendMessage(booking.getCustomerChatId(), message));
             } catch (Exception e) {
-                log.error("Failed to send one-hour reminder for booking {}: {}",
-                        booking.getBookingCode(), e.getMessage());
+                log.error("Failed to render reminder for booking {}: {}", booking.getBookingCode(), e.getMessage());
             }
         }
+
+        List<Long> delivered = new ArrayList<>();
+        sends.forEach((booking, send) -> {
+            try {
+                send.join();
+                delivered.add(booking.getId());
+            } catch (Exception e) {
+                log.error("Failed to send reminder for booking {}: {}", booking.getBookingCode(), e.getMessage());
+            }
+        });
+        return delivered;
     }
 }
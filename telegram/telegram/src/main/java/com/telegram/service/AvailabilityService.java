@@ -1,8 +1,8 @@
 package com.telegram.service;
 
 import com.telegram.config.BarbershopConfig;
-import com.telegram.entity.Booking.BookingStatus;
-import com.telegram.repository.BookingRepository;
+import com.telegram.entity.BarberService;
+import com.telegram.tracing.Tracer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -17,86 +17,80 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AvailabilityService {
 
-    private final BookingRepository bookingRepository;
+    private final SlotOccupancyService slotOccupancyService;
     private final BarbershopConfig config;
+    private final Tracer tracer;
 
-    public List<LocalDate> getAvailableDates() {
-        List<LocalDate> availableDates = new ArrayList<>();
-        LocalDate today = LocalDate.now();
-        LocalTime currentTime = LocalTime.now();
+    public List<LocalDate> getAvailableDates(BarberService service) {
+        try (Tracer.Scope span = tracer.span("availability.dates")) {
+            List<LocalDate> availableDates = new ArrayList<>();
+            LocalDate today = LocalDate.now();
+            LocalTime currentTime = LocalTime.now();
 
-        log.info("Getting available dates. Today: {}, Current time: {}", today, currentTime);
+            log.info("Getting available dates. Today: {}, Current time: {}", today, currentTime);
 
-        for (int i = 0; i < config.getBookingWindowDays(); i++) {
-            LocalDate date = today.plusDays(i);
+            // Load the whole booking window with one range query instead of one query per date
+            slotOccupancyService.preload(today, today.plusDays(config.getBookingWindowDays() - 1));
 
-            // Skip closed days
-            if (date.getDayOfWeek() == config.getClosedDays()) {
-                log.debug("Skipping {} - closed day", date);
-                continue;
-            }
-
-            // For today: check if currentTime + 2 hours < closingTime
-            if (date.equals(today)) {
-                LocalTime earliestBookableTime = currentTime.plusHours(config.getMinAdvanceBookingHours());
+            for (int i = 0; i < config.getBookingWindowDays(); i++) {
+                LocalDate date = today.plusDays(i);
 
-                // If earliest bookable time >= closing time, skip today
-                if (!earliestBookableTime.isBefore(config.getClosingTime())) {
-                    log.debug("Skipping today {} - too late (current: {}, earliest: {}, closing: {})",
-                            date, currentTime, earliestBookableTime, config.getClosingTime());
+                // Skip closed days
+                if (date.getDayOfWeek() == config.getClosedDays()) {
+                    log.debug("Skipping {} - closed day", date);
                     continue;
                 }
-            }
 
-            // Only add if there are available slots
-            if (hasAvailableSlots(date)) {
-                log.debug("Adding date {} - has available slots", date);
-                availableDates.add(date);
-            } else {
-                log.debug("Skipping {} - no available slots", date);
+                // For today: check if currentTime + 2 hours < closingTime
+                if (date.equals(today)) {
+                    LocalTime earliestBookableTime = currentTime.plusHours(config.getMinAdvanceBookingHours());
+
+                    // If earliest bookable time >= closing time, skip today
+                    if (!earliestBookableTime.isBefore(config.getClosingTime())) {
+                        log.debug("Skipping today {} - too late (current: {}, earliest: {}, closing: {})",
+                                date, currentTime, earliestBookableTime, config.getClosingTime());
+                        continue;
+                    }
+                }
+
+                // Only add if the service fits somewhere in the day
+                if (slotOccupancyService.hasFreeSlot(date, firstSlot(date, today, currentTime), service.getDurationMinutes())) {
+                    log.debug("Adding date {} - has available slots", date);
+                    availableDates.add(date);
+                } else {
+                    log.debug("Skipping {} - no available slots", date);
+                }
             }
-        }
 
-        log.info("Found {} available dates", availableDates.size());
-        return availableDates;
+            log.info("Found {} available dates", availableDates.size());
+            return availableDates;
+        }
     }
 
-    public List<LocalTime> getAvailableTimeSlots(LocalDate date) {
-        List<LocalTime> availableSlots = new ArrayList<>();
-        LocalTime closingTime = config.getClosingTime();
-        int slotInterval = config.getSlotIntervalMinutes();
+    public List<LocalTime> getAvailableTimeSlots(LocalDate date, BarberService service) {
+        try (Tracer.Scope span = tracer.span("availability.slots")) {
+            LocalDate today = LocalDate.now();
+            LocalTime currentTime = LocalTime.now();
 
-        LocalDate today = LocalDate.now();
-        LocalTime currentTime = LocalTime.now();
+            // If date is in the past, return empty
+            if (date.isBefore(today)) {
+                log.debug("Date {} is in the past, returning empty slots", date);
+                return new ArrayList<>();
+            }
 
-        // If date is in the past, return empty
-        if (date.isBefore(today)) {
-            log.debug("Date {} is in the past, returning empty slots", date);
-            return availableSlots;
+            // Scan the day's occupancy bitmap for start times where the whole service fits
+            return slotOccupancyService.getFreeSlots(date, firstSlot(date, today, currentTime), service.getDurationMinutes());
         }
+    }
 
-        // Determine the first available slot
-        LocalTime firstSlot;
+    private LocalTime firstSlot(LocalDate date, LocalDate today, LocalTime currentTime) {
         if (date.equals(today)) {
             // For today: first slot is currentTime + 2 hours, rounded up to next slot
             LocalTime earliestTime = currentTime.plusHours(config.getMinAdvanceBookingHours());
-            firstSlot = roundUpToNextSlot(earliestTime, config.getOpeningTime(), slotInterval);
-        } else {
-            // For future dates: start from opening time
-            firstSlot = config.getOpeningTime();
+            return roundUpToNextSlot(earliestTime, config.getOpeningTime(), config.getSlotIntervalMinutes());
         }
-
-        // Iterate through slots
-        LocalTime slot = firstSlot;
-        while (slot.isBefore(closingTime)) {
-            // Check if slot is already booked
-            if (!isSlotBooked(date, slot)) {
-                availableSlots.add(slot);
-            }
-            slot = slot.plusMinutes(slotInterval);
-        }
-
-        return availableSlots;
+        // For future dates: start from opening time
+        return config.getOpeningTime();
     }
 
     private LocalTime roundUpToNextSlot(LocalTime time, LocalTime openingTime, int slotInterval) {
@@ -111,16 +105,4 @@ public class AvailabilityService {
         int slotsNeeded = (int) Math.ceil((double) minutesSinceOpening / slotInterval);
         return openingTime.plusMinutes((long) slotsNeeded * slotInterval);
     }
-
-    public boolean isSlotBooked(LocalDate date, LocalTime time) {
-        boolean confirmedExists = bookingRepository.existsByBookingDateAndStartTimeAndStatus(
-                date, time, BookingStatus.CONFIRMED);
-        boolean pendingExists = bookingRepository.existsByBookingDateAndStartTimeAndStatus(
-                date, time, BookingStatus.PENDING);
-        return confirmedExists || pendingExists;
-    }
-
-    private boolean hasAvailableSlots(LocalDate date) {
-        return !getAvailableTimeSlots(date).isEmpty();
-    }
 }
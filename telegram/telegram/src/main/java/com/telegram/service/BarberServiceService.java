@@ -1,28 +1,129 @@
 package com.telegram.service;
 
 import com.telegram.entity.BarberService;
+import com.telegram.entity.BarberServiceChangedEvent;
 import com.telegram.repository.BarberServiceRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+/**
+ * Serves the service catalog from an immutable in-memory snapshot. The snapshot is
+ * swapped as a whole when a {@link BarberService} changes through JPA and on the
+ * {@code barbershop.catalog-refresh-interval}, which also picks up edits made
+ * directly in the database. Lookups are plain map reads.
+ */
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class BarberServiceService {
 
     private final BarberServiceRepository barberServiceRepository;
 
+    private volatile Catalog catalog;
+
+    private final LongAdder cacheHits = new LongAdder();
+    private final LongAdder cacheMisses = new LongAdder();
+
     public List<BarberService> getActiveServices() {
-        return barberServiceRepository.findByActiveTrueOrderByDisplayOrder();
+        return catalog().active();
     }
 
     public Optional<BarberService> findBySlug(String slug) {
-        return barberServiceRepository.findBySlug(slug);
+        BarberService service = catalog().bySlug().get(slug);
+        if (service != null) {
+            cacheHits.increment();
+            return Optional.of(service);
+        }
+
+        cacheMisses.increment();
+        Optional<BarberService> loaded = barberServiceRepository.findBySlug(slug);
+        // A service we didn't know about means the snapshot is behind
+        loaded.ifPresent(found -> refresh());
+        return loaded;
     }
 
     public Optional<BarberService> findById(Long id) {
-        return barberServiceRepository.findById(id);
+        BarberService service = catalog().byId().get(id);
+        if (service != null) {
+            cacheHits.increment();
+            return Optional.of(service);
+        }
+
+        cacheMisses.increment();
+        Optional<BarberService> loaded = barberServiceRepository.findById(id);
+        loaded.ifPresent(found -> refresh());
+        return loaded;
+    }
+
+    public Map<Long, BarberService> findAllById(Collection<Long> ids) {
+        Map<Long, BarberService> services = new HashMap<>();
+        for (Long id : ids) {
+            findById(id).ifPresent(service -> services.put(id, service));
+        }
+        return services;
+    }
+
+    @Scheduled(fixedDelayString = "${barbershop.catalog-refresh-interval:PT5M}",
+            initialDelayString = "${barbershop.catalog-refresh-interval:PT5M}")
+    public void refresh() {
+        catalog = load();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onServiceChanged(BarberServiceChangedEvent event) {
+        log.info("Service {} changed, refreshing catalog", event.serviceId());
+        refresh();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.sum();
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses.sum();
+    }
+
+    private Catalog catalog() {
+        Catalog current = catalog;
+        if (current == null) {
+            synchronized (this) {
+                if (catalog == null) {
+                    catalog = load();
+                }
+                current = catalog;
+            }
+        }
+        return current;
+    }
+
+    private Catalog load() {
+        List<BarberService> all = barberServiceRepository.findAll();
+        List<BarberService> active = barberServiceRepository.findByActiveTrueOrderByDisplayOrder();
+
+        Catalog loaded = new Catalog(
+                List.copyOf(active),
+                all.stream().collect(Collectors.toUnmodifiableMap(BarberService::getId, Function.identity())),
+                all.stream()
+                        .filter(service -> service.getSlug() != null)
+                        .collect(Collectors.toUnmodifiableMap(BarberService::getSlug, Function.identity(), (first, second) -> first)));
+        log.debug("Loaded service catalog with {} services ({} active)", all.size(), active.size());
+        return loaded;
+    }
+
+    private record Catalog(List<BarberService> active,
+                           Map<Long, BarberService> byId,
+                           Map<String, BarberService> bySlug) {
     }
 }
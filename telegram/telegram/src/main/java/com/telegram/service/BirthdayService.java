@@ -8,6 +8,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Slf4j
@@ -16,6 +17,7 @@ import java.util.List;
 public class BirthdayService {
 
     private final CustomerRepository customerRepository;
+    private final CustomerService customerService;
     private final BarbershopConfig config;
 
     public List<Customer> getCustomersWithBirthdayToday() {
@@ -59,10 +61,9 @@ public class BirthdayService {
     public void awardBirthdayReward(Customer customer) {
         int bonusPoints = config.getLoyalty().getBirthdayBonusPoints();
 
-        customer.setLoyaltyPoints(customer.getLoyaltyPoints() + bonusPoints);
-        customer.setLifetimeLoyaltyPoints(customer.getLifetimeLoyaltyPoints() + bonusPoints);
-        customer.setLastBirthdayRewardYear(LocalDate.now().getYear());
-
-        customerRepository.save(customer);
+        // Guarded by the reward year, so a second run on the same day awards nothing
+        customerRepository.awardBirthdayPoints(
+                customer.getTelegramChatId(), bonusPoints, LocalDate.now().getYear(), LocalDateTime.now());
+        customerService.evict(customer.getTelegramChatId());
     }
 }
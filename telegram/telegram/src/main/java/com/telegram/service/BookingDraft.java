@@ -0,0 +1,43 @@
+package com.telegram.service;
+
+import com.telegram.entity.BarberService;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * A chat's in-progress booking. {@code slots} are the start times offered for
+ * {@code date}, computed when the date's occupancy was at {@code occupancyVersion}.
+ * Date, slots and time stay null until the customer gets to that step.
+ */
+public record BookingDraft(BarberService service,
+                           LocalDate date,
+                           List<LocalTime> slots,
+                           long occupancyVersion,
+                           LocalTime time) {
+
+    static BookingDraft of(BarberService service) {
+        return new BookingDraft(service, null, null, 0, null);
+    }
+
+    BookingDraft withSlots(LocalDate date, List<LocalTime> slots, long occupancyVersion) {
+        return new BookingDraft(service, date, List.copyOf(slots), occupancyVersion, null);
+    }
+
+    BookingDraft withTime(LocalTime time) {
+        return new BookingDraft(service, date, slots, occupancyVersion, time);
+    }
+
+    boolean isFor(long serviceId) {
+        return service.getId() == serviceId;
+    }
+
+    boolean hasSlotsFor(long serviceId, LocalDate date) {
+        return isFor(serviceId) && date.equals(this.date) && slots != null;
+    }
+
+    public boolean isOffered(LocalTime time) {
+        return slots != null && slots.contains(time);
+    }
+}
@@ -0,0 +1,16 @@
+package com.telegram.service;
+
+import com.telegram.repository.BookingSummary;
+
+import java.util.List;
+
+/**
+ * One page of a customer's active bookings in date and time order. The next page starts
+ * after {@link #last()}.
+ */
+public record BookingPage(List<BookingSummary> bookings, boolean first, boolean hasMore) {
+
+    public BookingSummary last() {
+        return bookings.getLast();
+    }
+}
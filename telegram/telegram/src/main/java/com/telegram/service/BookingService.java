@@ -5,7 +5,14 @@ import com.telegram.entity.Booking;
 import com.telegram.entity.Booking.BookingStatus;
 import com.telegram.entity.BarberService;
 import com.telegram.repository.BookingRepository;
+import com.telegram.repository.BookingSummary;
+import com.telegram.tracing.Tracer;
+import com.telegram.util.BookingCodeGenerator;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -13,15 +20,54 @@ import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
-import java.util.Random;
+import java.util.concurrent.locks.ReentrantLock;
 
+@Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingService {
 
+    private static final int LOCK_STRIPES = 64;
+    private static final int MAX_CODE_ATTEMPTS = 3;
+
     private final BookingRepository bookingRepository;
+    private final SlotOccupancyService slotOccupancyService;
+    private final ReminderService reminderService;
+    private final BookingCodeGenerator bookingCodeGenerator;
     private final BarbershopConfig config;
+    private final Tracer tracer;
+
+    private final ReentrantLock[] dateLocks = createLocks();
+
+    /**
+     * Checks the slot and creates the booking as one step. Reservations for the same date
+     * are serialized by a striped lock, so overlapping bookings can't both pass the check
+     * on this instance; the unique active slot column catches a second instance booking
+     * the same start time. Returns empty if the slot was taken.
+     */
+    public Optional<Booking> reserve(Long customerChatId, BarberService service, LocalDate date, LocalTime time) {
+        ReentrantLock lock = dateLocks[Math.floorMod(date.hashCode(), LOCK_STRIPES)];
+        Tracer.Scope span = tracer.span("booking.reserve");
+        lock.lock();
+        try {
+            if (!isSlotAvailable(date, time, service)) {
+                return Optional.empty();
+            }
+            return Optional.of(createBooking(customerChatId, service, date, time));
+        } catch (DataIntegrityViolationException e) {
+            if (!violates(e, Booking.ACTIVE_SLOT_CONSTRAINT)) {
+                throw e;
+            }
+            log.info("Slot {} {} was taken by another instance", date, time);
+            slotOccupancyService.invalidate(date);
+            return Optional.empty();
+        } finally {
+            lock.unlock();
+            span.close();
+        }
+    }
 
     public Booking createBooking(Long customerChatId, BarberService service, LocalDate date, LocalTime time) {
         BigDecimal price = service.getPrice();
@@ -31,57 +77,101 @@ public class BookingService {
         BigDecimal remainingBalance = price.subtract(depositAmount);
 
         Booking booking = Booking.builder()
-                .bookingCode(generateBookingCode())
                 .customerChatId(customerChatId)
                 .serviceId(service.getId())
                 .bookingDate(date)
                 .startTime(time)
                 .endTime(time.plusMinutes(service.getDurationMinutes()))
+                .activeSlot(date.atTime(time))
                 .status(BookingStatus.CONFIRMED)
                 .depositAmount(depositAmount)
                 .depositPaid(false)
                 .remainingBalance(remainingBalance)
-                .dayBeforeReminderSent(false)
-                .oneHourReminderSent(false)
                 .build();
 
-        return bookingRepository.save(booking);
+        Booking saved = saveWithNewCode(booking);
+        slotOccupancyService.occupy(saved);
+        reminderService.scheduleReminders(saved);
+        return saved;
     }
 
     public Optional<Booking> findByBookingCode(String code) {
         return bookingRepository.findByBookingCode(code);
     }
 
-    public List<Booking> getCustomerActiveBookings(Long customerChatId) {
-        List<Booking> pending = bookingRepository.findByCustomerChatIdAndStatus(customerChatId, BookingStatus.PENDING);
-        List<Booking> confirmed = bookingRepository.findByCustomerChatIdAndStatus(customerChatId, BookingStatus.CONFIRMED);
+    public BookingPage getActiveBookingsPage(Long customerChatId) {
+        int pageSize = config.getMyBookingsPageSize();
+        return page(bookingRepository.findSummaries(
+                customerChatId, SlotOccupancyService.ACTIVE_STATUSES, Limit.of(pageSize + 1)), pageSize, true);
+    }
 
-        List<Booking> allActive = new java.util.ArrayList<>(pending);
-        allActive.addAll(confirmed);
-        return allActive;
+    /**
+     * The page following the booking at {@code date} and {@code time} with id {@code bookingId}.
+     */
+    public BookingPage getActiveBookingsPageAfter(Long customerChatId, LocalDate date, LocalTime time, Long bookingId) {
+        int pageSize = config.getMyBookingsPageSize();
+        return page(bookingRepository.findSummariesAfter(
+                customerChatId, SlotOccupancyService.ACTIVE_STATUSES, date, time, bookingId, Limit.of(pageSize + 1)),
+                pageSize, false);
     }
 
-    public boolean isSlotAvailable(LocalDate date, LocalTime time) {
-        boolean confirmedExists = bookingRepository.existsByBookingDateAndStartTimeAndStatus(date, time, BookingStatus.CONFIRMED);
-        boolean pendingExists = bookingRepository.existsByBookingDateAndStartTimeAndStatus(date, time, BookingStatus.PENDING);
-        return !confirmedExists && !pendingExists;
+    public boolean isSlotAvailable(LocalDate date, LocalTime time, BarberService service) {
+        return slotOccupancyService.isAvailable(date, time, service.getDurationMinutes());
     }
 
     public Booking cancelBooking(Booking booking) {
         booking.setStatus(BookingStatus.CANCELLED);
         booking.setCancelledAt(java.time.LocalDateTime.now());
-        return bookingRepository.save(booking);
+        booking.setActiveSlot(null);
+        Booking saved = bookingRepository.save(booking);
+        slotOccupancyService.release(saved);
+        reminderService.cancelReminders(saved.getId());
+        return saved;
     }
 
     public Booking save(Booking booking) {
         return bookingRepository.save(booking);
     }
 
-    private String generateBookingCode() {
-        String code;
-        do {
-            code = "BK" + (1000 + new Random().nextInt(9000));
-        } while (bookingRepository.findByBookingCode(code).isPresent());
-        return code;
+    /**
+     * Saves the booking under a freshly generated code. Codes are unique per node by
+     * construction, but a misconfigured node id or a restart while the generator was
+     * borrowing future seconds can repeat one, so a collision gets a new code.
+     */
+    private Booking saveWithNewCode(Booking booking) {
+        for (int attempt = 1; ; attempt++) {
+            booking.setBookingCode(bookingCodeGenerator.nextCode());
+            try {
+                return bookingRepository.save(booking);
+            } catch (DataIntegrityViolationException e) {
+                if (attempt == MAX_CODE_ATTEMPTS || !violates(e, Booking.BOOKING_CODE_CONSTRAINT)) {
+                    throw e;
+                }
+                log.warn("Booking code {} was already taken, generating another", booking.getBookingCode());
+            }
+        }
+    }
+
+    private static boolean violates(DataIntegrityViolationException e, String constraint) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException violation && violation.getConstraintName() != null) {
+                return violation.getConstraintName().toLowerCase(Locale.ROOT).contains(constraint);
+            }
+        }
+        return false;
+    }
+
+    // One row more than a page is read to tell whether there is a next page
+    private static BookingPage page(List<BookingSummary> rows, int pageSize, boolean first) {
+        boolean hasMore = rows.size() > pageSize;
+        return new BookingPage(hasMore ? rows.subList(0, pageSize) : rows, first, hasMore);
+    }
+
+    private static ReentrantLock[] createLocks() {
+        ReentrantLock[] locks = new ReentrantLock[LOCK_STRIPES];
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+        return locks;
     }
 }
@@ -0,0 +1,119 @@
+package com.telegram.service;
+
+import com.telegram.config.BarbershopConfig;
+import com.telegram.entity.BarberService;
+import com.telegram.util.ExpiringLruCache;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Holds each chat's {@link BookingDraft} between booking steps so a step can reuse the
+ * service and slots the previous one looked up. Callback data stays authoritative: a
+ * draft is only used when it matches what the button carries, and a missing or
+ * mismatched draft is rebuilt from the callback, e.g. after eviction or a restart.
+ * Every step writes the draft back, which is what makes the cache's time to live an
+ * idle timeout here.
+ */
+@Service
+public class BookingSessionService {
+
+    private final BarberServiceService barberServiceService;
+    private final AvailabilityService availabilityService;
+    private final SlotOccupancyService slotOccupancyService;
+    private final ExpiringLruCache<Long, BookingDraft> drafts;
+
+    public BookingSessionService(BarberServiceService barberServiceService,
+                                 AvailabilityService availabilityService,
+                                 SlotOccupancyService slotOccupancyService,
+                                 BarbershopConfig config) {
+        this.barberServiceService = barberServiceService;
+        this.availabilityService = availabilityService;
+        this.slotOccupancyService = slotOccupancyService;
+        this.drafts = new ExpiringLruCache<>(
+                config.getBookingSessions().getMaxSize(),
+                config.getBookingSessions().getIdleTimeout());
+    }
+
+    /**
+     * Starts a new draft for the service, replacing whatever the chat had in progress.
+     */
+    public Optional<BookingDraft> selectService(Long chatId, long serviceId) {
+        Optional<BookingDraft> draft = barberServiceService.findById(serviceId).map(BookingDraft::of);
+        draft.ifPresentOrElse(started -> drafts.put(chatId, started), () -> drafts.invalidate(chatId));
+        return draft;
+    }
+
+    /**
+     * The draft with the free slots for {@code date}, reusing the ones already computed
+     * if the date's occupancy hasn't changed since.
+     */
+    public Optional<BookingDraft> selectDate(Long chatId, long serviceId, LocalDate date) {
+        Optional<BookingDraft> draft = draftFor(chatId, serviceId)
+                .map(current -> isCurrent(current, serviceId, date) ? current : withFreshSlots(current, date));
+        draft.ifPresent(updated -> drafts.put(chatId, updated));
+        return draft;
+    }
+
+    /**
+     * The draft with {@code time} chosen. Whether the time is still free can be read
+     * from {@link BookingDraft#isOffered}; the slots are recomputed first if they are stale.
+     */
+    public Optional<BookingDraft> selectTime(Long chatId, long serviceId, LocalDate date, LocalTime time) {
+        return selectDate(chatId, serviceId, date).map(draft -> {
+            BookingDraft updated = draft.withTime(time);
+            drafts.put(chatId, updated);
+            return updated;
+        });
+    }
+
+    /**
+     * The service being booked, taken from the draft when it matches. The draft's slots
+     * aren't trusted here, the reservation checks the slot itself.
+     */
+    public Optional<BarberService> serviceFor(Long chatId, long serviceId) {
+        BookingDraft draft = drafts.get(chatId);
+        if (draft != null && draft.isFor(serviceId)) {
+            return Optional.of(draft.service());
+        }
+        return barberServiceService.findById(serviceId);
+    }
+
+    public void finish(Long chatId) {
+        drafts.invalidate(chatId);
+    }
+
+    public int getDraftCount() {
+        return drafts.size();
+    }
+
+    public long getDraftHits() {
+        return drafts.getHits();
+    }
+
+    public long getDraftMisses() {
+        return drafts.getMisses();
+    }
+
+    private Optional<BookingDraft> draftFor(Long chatId, long serviceId) {
+        BookingDraft draft = drafts.get(chatId);
+        if (draft != null && draft.isFor(serviceId)) {
+            return Optional.of(draft);
+        }
+        return barberServiceService.findById(serviceId).map(BookingDraft::of);
+    }
+
+    private boolean isCurrent(BookingDraft draft, long serviceId, LocalDate date) {
+        return draft.hasSlotsFor(serviceId, date) && draft.occupancyVersion() == slotOccupancyService.getVersion(date);
+    }
+
+    private BookingDraft withFreshSlots(BookingDraft draft, LocalDate date) {
+        // Read the version first, a change while the slots are computed then shows up as stale
+        long version = slotOccupancyService.getVersion(date);
+        List<LocalTime> slots = availabilityService.getAvailableTimeSlots(date, draft.service());
+        return draft.withSlots(date, slots, version);
+    }
+}
@@ -1,45 +1,105 @@
 package com.telegram.service;
 
+import com.telegram.config.BarbershopConfig;
 import com.telegram.entity.Customer;
 import com.telegram.repository.CustomerRepository;
-import lombok.RequiredArgsConstructor;
+import com.telegram.util.ExpiringLruCache;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
+/**
+ * Customer lookups go through a bounded cache, so a returning customer's tap doesn't
+ * touch the database. Customers are changed with targeted updates only, as saving a
+ * cached entity would write back counters that changed since it was read. Code that
+ * changes customers must {@link #evict} them afterwards.
+ */
 @Service
-@RequiredArgsConstructor
 public class CustomerService {
 
     private final CustomerRepository customerRepository;
+    private final ExpiringLruCache<Long, Customer> cache;
 
-    public Customer getOrCreateCustomer(Long chatId, String username) {
-        Optional<Customer> existing = customerRepository.findById(chatId);
+    public CustomerService(CustomerRepository customerRepository, BarbershopConfig config) {
+        this.customerRepository = customerRepository;
+        this.cache = new ExpiringLruCache<>(
+                config.getCustomerCache().getMaxSize(),
+                config.getCustomerCache().getTimeToLive());
+    }
 
-        if (existing.isPresent()) {
-            return existing.get();
+    public Customer getOrCreateCustomer(Long chatId, String username) {
+        Customer cached = cache.get(chatId);
+        if (cached != null) {
+            return cached;
         }
 
-        Customer customer = Customer.builder()
-                .telegramChatId(chatId)
-                .telegramUsername(username)
-                .birthdayPrompted(false)
-                .loyaltyPoints(0)
-                .lifetimeLoyaltyPoints(0)
-                .totalBookings(0)
-                .completedBookings(0)
-                .cancelledBookings(0)
-                .noShowBookings(0)
-                .build();
+        // Single statement, so two concurrent first taps from the same chat can't both insert
+        customerRepository.insertIfAbsent(chatId, username, LocalDateTime.now());
+        Customer customer = customerRepository.findById(chatId)
+                .orElseThrow(() -> new IllegalStateException("Customer " + chatId + " not found after upsert"));
 
-        return customerRepository.save(customer);
+        cache.put(chatId, customer);
+        return customer;
     }
 
     public Optional<Customer> findByChatlId(Long chatId) {
-        return customerRepository.findById(chatId);
+        Customer cached = cache.get(chatId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+
+        Optional<Customer> customer = customerRepository.findById(chatId);
+        customer.ifPresent(found -> cache.put(chatId, found));
+        return customer;
+    }
+
+    public void skipBirthday(Long chatId) {
+        customerRepository.markBirthdayPrompted(chatId, LocalDateTime.now());
+        evict(chatId);
+    }
+
+    public void setBirthday(Long chatId, int day, int month) {
+        customerRepository.updateBirthday(chatId, day, month, LocalDateTime.now());
+        evict(chatId);
+    }
+
+    /**
+     * Drops the cached customer. Inside a transaction it is dropped again once the
+     * transaction commits, since a lookup before then still reads the old row.
+     */
+    public void evict(Long chatId) {
+        cache.invalidate(chatId);
+        afterCommit(() -> cache.invalidate(chatId));
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+        afterCommit(cache::invalidateAll);
+    }
+
+    public int getCacheSize() {
+        return cache.size();
     }
 
-    public Customer save(Customer customer) {
-        return customerRepository.save(customer);
+    public long getCacheHits() {
+        return cache.getHits();
+    }
+
+    public long getCacheMisses() {
+        return cache.getMisses();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
     }
 }
@@ -2,11 +2,14 @@ package com.telegram.service;
 
 import com.telegram.config.BarbershopConfig;
 import com.telegram.entity.Customer;
+import com.telegram.repository.CustomerCounters;
 import com.telegram.repository.CustomerRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -16,35 +19,78 @@ import java.util.Optional;
 public class LoyaltyService {
 
     private final CustomerRepository customerRepository;
+    private final CustomerService customerService;
     private final BarbershopConfig config;
 
-    public void awardBookingPoints(Customer customer, boolean isFirstBooking) {
+    @Transactional
+    public int awardBookingPoints(Customer customer, boolean isFirstBooking) {
         int points = config.getLoyalty().getPointsPerBooking();
 
         if (isFirstBooking) {
             points += config.getLoyalty().getFirstBookingBonus();
         }
 
-        customer.setLoyaltyPoints(customer.getLoyaltyPoints() + points);
-        customer.setLifetimeLoyaltyPoints(customer.getLifetimeLoyaltyPoints() + points);
-        customerRepository.save(customer);
+        customerRepository.addLoyaltyPoints(customer.getTelegramChatId(), points, LocalDateTime.now());
+        refreshCounters(customer);
 
         log.info("Awarded {} points to customer {}", points, customer.getTelegramChatId());
+        return customer.getLoyaltyPoints();
     }
 
-    public void incrementCompletedBookings(Customer customer) {
-        customer.setCompletedBookings(customer.getCompletedBookings() + 1);
-        customerRepository.save(customer);
+    /**
+     * Applies completed-booking counts and booking points for every booking completed
+     * by completion {@code run} in one statement. Returns the number of customers credited.
+     */
+    public int accrueCompletedBookings(String run) {
+        int customers = customerRepository.accrueCompletedBookings(
+                run,
+                config.getLoyalty().getPointsPerBooking(),
+                config.getLoyalty().getFirstBookingBonus());
+        if (customers > 0) {
+            customerService.evictAll();
+        }
+
+        log.info("Awarded completed booking points to {} customers", customers);
+        return customers;
+    }
+
+    // The increments run in the database, so concurrent callers never lose an update.
+    // Each one re-reads the counters in the same transaction and returns the new value.
+
+    @Transactional
+    public int incrementCompletedBookings(Customer customer) {
+        customerRepository.incrementCompletedBookings(customer.getTelegramChatId(), LocalDateTime.now());
+        refreshCounters(customer);
+        return customer.getCompletedBookings();
     }
 
-    public void incrementTotalBookings(Customer customer) {
-        customer.setTotalBookings(customer.getTotalBookings() + 1);
-        customerRepository.save(customer);
+    @Transactional
+    public int incrementTotalBookings(Customer customer) {
+        customerRepository.incrementTotalBookings(customer.getTelegramChatId(), LocalDateTime.now());
+        refreshCounters(customer);
+        return customer.getTotalBookings();
     }
 
-    public void incrementCancelledBookings(Customer customer) {
-        customer.setCancelledBookings(customer.getCancelledBookings() + 1);
-        customerRepository.save(customer);
+    @Transactional
+    public int incrementCancelledBookings(Customer customer) {
+        customerRepository.incrementCancelledBookings(customer.getTelegramChatId(), LocalDateTime.now());
+        refreshCounters(customer);
+        return customer.getCancelledBookings();
+    }
+
+    private void refreshCounters(Customer customer) {
+        // The cached copy may be a different instance than the one passed in
+        customerService.evict(customer.getTelegramChatId());
+
+        CustomerCounters counters = customerRepository.findCountersByTelegramChatId(customer.getTelegramChatId())
+                .orElseThrow(() -> new IllegalStateException("Customer " + customer.getTelegramChatId() + " not found"));
+
+        customer.setLoyaltyPoints(counters.getLoyaltyPoints());
+        customer.setLifetimeLoyaltyPoints(counters.getLifetimeLoyaltyPoints());
+        customer.setTotalBookings(counters.getTotalBookings());
+        customer.setCompletedBookings(counters.getCompletedBookings());
+        customer.setCancelledBookings(counters.getCancelledBookings());
+        customer.setLastBirthdayRewardYear(counters.getLastBirthdayRewardYear());
     }
 
     public Optional<Integer> checkMilestone(Customer customer) {
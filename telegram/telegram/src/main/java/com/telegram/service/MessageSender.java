@@ -1,35 +1,400 @@
 package com.telegram.service;
 
+import com.telegram.config.TelegramBotConfig;
+import com.telegram.tracing.Trace;
+import com.telegram.tracing.Tracer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.telegram.telegrambots.bots.TelegramLongPollingBot;
+import org.telegram.telegrambots.meta.api.methods.AnswerCallbackQuery;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
 import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.Message;
 import org.telegram.telegrambots.meta.exceptions.TelegramApiException;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
 
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Asynchronous, rate-limited outbound queue for Bot API calls.
+ * <p>
+ * Every call reserves the next free send time for its chat (one message per
+ * {@code per-chat-interval-millis}) and then waits in its priority lane. A single
+ * scheduler thread takes ready calls, interactive lane first, spends one token from
+ * the global bucket and hands the call to a virtual thread.
+ * <p>
+ * A 429 for a call to a chat pauses only that chat for {@code retry_after} seconds: the
+ * call goes back in front of the chat's other queued calls, so they still arrive in the
+ * order they were sent. A 429 for a call without a chat pauses the whole pipeline.
+ * <p>
+ * Callback answers skip all of that. They don't count against the message limits and
+ * stop the client's spinner, so they go to a sender thread as soon as they are queued.
+ */
 @Slf4j
 @Service
 public class MessageSender {
 
+    private static final int CHAT_SLOT_PRUNE_THRESHOLD = 10_000;
+
+    public enum Priority {
+        // Unpaced, see answerCallback
+        ACK,
+        INTERACTIVE,
+        BULK
+    }
+
+    private final TelegramBotConfig.Outbound config;
+    private final long perChatIntervalNanos;
+    private final double nanosPerToken;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition queueChanged = lock.newCondition();
+    private final Map<Priority, PriorityQueue<OutboundCall<?>>> lanes = new EnumMap<>(Priority.class);
+    private final Map<Priority, AtomicInteger> laneDepths = new EnumMap<>(Priority.class);
+    private final Map<Long, Long> nextChatSendTime = new HashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final LongAccumulator pausedUntil = new LongAccumulator(Math::max, Long.MIN_VALUE);
+    private Thread scheduler;
+    private double tokens;
+    private long lastRefill;
+
+    private final LongAdder sentCalls = new LongAdder();
+    private final LongAdder failedCalls = new LongAdder();
+    private final LongAdder retriedCalls = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+
+    private final MeterRegistry meterRegistry;
+    private final Tracer tracer;
+
     private TelegramLongPollingBot bot;
 
+    public MessageSender(TelegramBotConfig telegramBotConfig, MeterRegistry meterRegistry, Tracer tracer) {
+        this.config = telegramBotConfig.getOutbound();
+        this.meterRegistry = meterRegistry;
+        this.tracer = tracer;
+        this.perChatIntervalNanos = TimeUnit.MILLISECONDS.toNanos(config.getPerChatIntervalMillis());
+        this.nanosPerToken = (double) TimeUnit.SECONDS.toNanos(1) / config.getGlobalMessagesPerSecond();
+
+        for (Priority priority : Priority.values()) {
+            lanes.put(priority, new PriorityQueue<>(Comparator
+                    .comparingLong((OutboundCall<?> call) -> call.notBefore)
+                    .thenComparingLong(call -> call.sequence)));
+            laneDepths.put(priority, new AtomicInteger());
+        }
+    }
+
     public void setBot(TelegramLongPollingBot bot) {
         this.bot = bot;
     }
 
-    public void sendMessage(Long chatId, String text) {
-        if (bot == null) {
-            log.warn("Bot not initialized, cannot send message");
-            return;
-        }
+    @PostConstruct
+    public void start() {
+        tokens = config.getGlobalMessagesPerSecond();
+        lastRefill = System.nanoTime();
+        scheduler = Thread.ofPlatform().name("telegram-outbound").daemon().start(this::schedule);
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.interrupt();
+        senders.shutdown();
+    }
 
+    /**
+     * Queues a plain text message on the bulk lane, used by the schedulers.
+     */
+    public CompletableFuture<Message> sendMessage(Long chatId, String text) {
         SendMessage message = new SendMessage();
         message.setChatId(chatId);
         message.setText(text);
 
+        return send(chatId, message, Priority.BULK);
+    }
+
+    /**
+     * Answers a callback query on the ACK lane, ahead of any queued message.
+     */
+    public CompletableFuture<Boolean> answerCallback(String callbackQueryId) {
+        AnswerCallbackQuery answer = new AnswerCallbackQuery();
+        answer.setCallbackQueryId(callbackQueryId);
+
+        // An answer needs only the query id, the callback may not carry a message or chat
+        return send(null, answer, Priority.ACK);
+    }
+
+    public <T extends Serializable> CompletableFuture<T> send(Long chatId, BotApiMethod<T> method, Priority priority) {
+        OutboundCall<T> call = new OutboundCall<>(chatId, method, priority, sequence.incrementAndGet(), tracer.currentTrace());
+
+        if (priority == Priority.ACK) {
+            // Neither the chat's send time nor a global token is spent on an answer
+            senders.execute(() -> deliver(call));
+            return call.future;
+        }
+
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            long notBefore = Math.max(now, nextChatSendTime.getOrDefault(chatId, now));
+            nextChatSendTime.put(chatId, notBefore + perChatIntervalNanos);
+            if (nextChatSendTime.size() > CHAT_SLOT_PRUNE_THRESHOLD) {
+                nextChatSendTime.values().removeIf(sendTime -> sendTime < now);
+            }
+
+            call.notBefore = notBefore;
+            enqueue(call);
+        } finally {
+            lock.unlock();
+        }
+
+        return call.future;
+    }
+
+    public int getQueueDepth(Priority priority) {
+        return laneDepths.get(priority).get();
+    }
+
+    public long getSentCalls() {
+        return sentCalls.sum();
+    }
+
+    public long getFailedCalls() {
+        return failedCalls.sum();
+    }
+
+    public long getRetriedCalls() {
+        return retriedCalls.sum();
+    }
+
+    public double getAverageSendLatencyMillis() {
+        long sent = sentCalls.sum();
+        return sent == 0 ? 0 : totalLatencyNanos.sum() / (sent * 1_000_000.0);
+    }
+
+    public double getMaxSendLatencyMillis() {
+        return maxLatencyNanos.get() / 1_000_000.0;
+    }
+
+    private void enqueue(OutboundCall<?> call) {
+        lanes.get(call.priority).add(call);
+        laneDepths.get(call.priority).incrementAndGet();
+        queueChanged.signal();
+    }
+
+    private void schedule() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                OutboundCall<?> call = takeReady();
+                acquirePermit();
+                senders.execute(() -> deliver(call));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.info("Outbound scheduler stopped");
+    }
+
+    private OutboundCall<?> takeReady() throws InterruptedException {
+        lock.lock();
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                long wait = Long.MAX_VALUE;
+
+                // Lanes are checked in priority order, so interactive replies always go first
+                for (Priority priority : Priority.values()) {
+                    OutboundCall<?> head = lanes.get(priority).peek();
+                    if (head == null) {
+                        continue;
+                    }
+                    long delay = head.notBefore - now;
+                    if (delay <= 0) {
+                        lanes.get(priority).poll();
+                        laneDepths.get(priority).decrementAndGet();
+                        return head;
+                    }
+                    wait = Math.min(wait, delay);
+                }
+
+                if (wait == Long.MAX_VALUE) {
+                    queueChanged.await();
+                } else {
+                    queueChanged.awaitNanos(wait);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void acquirePermit() throws InterruptedException {
+        while (true) {
+            long now = System.nanoTime();
+            long resumeAt = pausedUntil.get();
+            if (resumeAt > now) {
+                TimeUnit.NANOSECONDS.sleep(resumeAt - now);
+                continue;
+            }
+
+            int capacity = config.getGlobalMessagesPerSecond();
+            tokens = Math.min(capacity, tokens + (now - lastRefill) / nanosPerToken);
+            lastRefill = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return;
+            }
+            TimeUnit.NANOSECONDS.sleep((long) ((1 - tokens) * nanosPerToken));
+        }
+    }
+
+    private <T extends Serializable> void deliver(OutboundCall<T> call) {
+        if (bot == null) {
+            log.warn("Bot not initialized, cannot send message");
+            failedCalls.increment();
+            call.future.completeExceptionally(new IllegalStateException("Bot not initialized"));
+            return;
+        }
+
+        long executeStart = System.nanoTime();
         try {
-            bot.execute(message);
+            T result = bot.execute(call.method);
+            recordExecute(call, "success", executeStart);
+            long latency = System.nanoTime() - call.enqueuedAt;
+            sentCalls.increment();
+            totalLatencyNanos.add(latency);
+            maxLatencyNanos.accumulate(latency);
+            call.future.complete(result);
+        } catch (TelegramApiRequestException e) {
+            Integer retryAfter = e.getParameters() != null ? e.getParameters().getRetryAfter() : null;
+            if (Integer.valueOf(429).equals(e.getErrorCode()) && retryAfter != null && call.attempts < config.getMaxRetries()) {
+                recordExecute(call, "rate_limited", executeStart);
+                retry(call, retryAfter);
+            } else {
+                recordExecute(call, "error", executeStart);
+                fail(call, e);
+            }
         } catch (TelegramApiException e) {
-            log.error("Failed to send message to {}: {}", chatId, e.getMessage());
+            recordExecute(call, "error", executeStart);
+            fail(call, e);
+        } catch (RuntimeException e) {
+            // Anything else thrown on a sender thread would leave the caller's future pending forever
+            recordExecute(call, "error", executeStart);
+            fail(call, e);
+        }
+    }
+
+    private void recordExecute(OutboundCall<?> call, String outcome, long startNanos) {
+        long endNanos = System.nanoTime();
+        if (call.trace != null) {
+            // Sent from a sender thread, so the span is added to the trace the call was queued from
+            call.trace.add("telegram.execute " + call.method.getMethod(), 0, startNanos, endNanos);
+        }
+
+        Timer.builder("telegram.api.call")
+                .description("Duration of one Bot API request")
+                .tag("method", call.method.getMethod())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(endNanos - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void retry(OutboundCall<?> call, int retryAfterSeconds) {
+        long resumeAt = System.nanoTime() + TimeUnit.SECONDS.toNanos(retryAfterSeconds);
+        retriedCalls.increment();
+
+        lock.lock();
+        try {
+            call.attempts++;
+            if (call.chatId == null) {
+                // Not tied to a chat, so the limit hit is the bot's own
+                pausedUntil.accumulate(resumeAt);
+                log.warn("Rate limited by Telegram, pausing all calls for {}s", retryAfterSeconds);
+                call.notBefore = resumeAt;
+                enqueue(call);
+            } else {
+                log.warn("Rate limited by Telegram, retrying calls to {} in {}s", call.chatId, retryAfterSeconds);
+                pauseChat(call, resumeAt);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Requeues the call together with the chat's queued calls, in the order they were
+     * sent, with the first at {@code resumeAt} and each later one an interval apart.
+     */
+    private void pauseChat(OutboundCall<?> call, long resumeAt) {
+        List<OutboundCall<?>> chatCalls = new ArrayList<>();
+        chatCalls.add(call);
+        for (Priority priority : Priority.values()) {
+            lanes.get(priority).removeIf(queued -> {
+                if (!call.chatId.equals(queued.chatId)) {
+                    return false;
+                }
+                chatCalls.add(queued);
+                laneDepths.get(priority).decrementAndGet();
+                return true;
+            });
+        }
+        chatCalls.sort(Comparator.comparingLong(queued -> queued.sequence));
+
+        long notBefore = resumeAt;
+        for (OutboundCall<?> queued : chatCalls) {
+            queued.notBefore = Math.max(notBefore, queued.notBefore);
+            notBefore = queued.notBefore + perChatIntervalNanos;
+            enqueue(queued);
+        }
+        nextChatSendTime.merge(call.chatId, notBefore, Math::max);
+    }
+
+    private void fail(OutboundCall<?> call, Exception e) {
+        failedCalls.increment();
+        log.error("Failed to send message to {}: {}", call.chatId, e.getMessage());
+        call.future.completeExceptionally(e);
+    }
+
+    private static final class OutboundCall<T extends Serializable> {
+
+        private final Long chatId;
+        private final BotApiMethod<T> method;
+        private final Priority priority;
+        private final long sequence;
+        private final long enqueuedAt = System.nanoTime();
+        private final Trace trace;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private long notBefore;
+        private int attempts;
+
+        private OutboundCall(Long chatId, BotApiMethod<T> method, Priority priority, long sequence, Trace trace) {
+            this.chatId = chatId;
+            this.method = method;
+            this.priority = priority;
+            this.sequence = sequence;
+            this.trace = trace;
         }
     }
 }
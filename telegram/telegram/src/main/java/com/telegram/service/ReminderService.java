@@ -9,47 +9,168 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalDate;
-import java.time.LocalTime;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
-
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Owns the in-memory reminder deadlines. Every confirmed booking gets one deadline per
+ * configured offset ({@code barbershop.reminders.offsets}) in a {@link DelayQueue}, which
+ * hands each one out exactly when {@code start - offset} is reached. Each instance keeps
+ * its own deadlines; {@link #claimReminders} decides which instance sends a reminder.
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class ReminderService {
 
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("EEEE, d MMMM");
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
+
     private final BookingRepository bookingRepository;
     private final BarberServiceService barberServiceService;
     private final BarbershopConfig config;
 
-    public List<Booking> getBookingsForDayBeforeReminder() {
-        LocalDate tomorrow = LocalDate.now().plusDays(1);
-        return bookingRepository.findByStatusAndDayBeforeReminderSentFalseAndBookingDate(
-                BookingStatus.CONFIRMED, tomorrow);
+    private final DelayQueue<Reminder> deadlines = new DelayQueue<>();
+
+    /**
+     * Loads the deadlines of every upcoming confirmed booking, used once at startup.
+     */
+    public void loadUpcomingReminders() {
+        List<Booking> bookings = bookingRepository.findByStatusAndBookingDateGreaterThanEqual(
+                BookingStatus.CONFIRMED, LocalDate.now());
+        // Reminders that fell due while the bot was down are still sent if they are only slightly late
+        long lateCutoff = System.currentTimeMillis() - config.getReminders().getLateGrace().toMillis();
+        bookings.forEach(booking -> schedule(booking, lateCutoff));
+        log.info("Loaded {} reminder deadlines for {} upcoming bookings", deadlines.size(), bookings.size());
+    }
+
+    public void scheduleReminders(Booking booking) {
+        schedule(booking, System.currentTimeMillis());
+    }
+
+    private void schedule(Booking booking, long lateCutoff) {
+        long now = System.currentTimeMillis();
+        long start = toEpochMillis(booking.getBookingDate().atTime(booking.getStartTime()));
+
+        // Offsets from largest to smallest, so a missed one is only kept if no smaller one is also missed
+        List<Duration> offsets = config.getReminders().getOffsets().stream()
+                .sorted(Comparator.reverseOrder())
+                .toList();
+
+        Reminder missed = null;
+        for (Duration offset : offsets) {
+            long dueAt = start - offset.toMillis();
+            if (!isPending(booking, offset) || dueAt < lateCutoff || start <= now) {
+                continue;
+            }
+            Reminder reminder = new Reminder(booking.getId(), offset, dueAt);
+            if (dueAt <= now) {
+                missed = reminder;
+            } else {
+                deadlines.add(reminder);
+            }
+        }
+
+        if (missed != null) {
+            deadlines.add(missed);
+        }
+    }
+
+    public void cancelReminders(Long bookingId) {
+        deadlines.removeIf(reminder -> reminder.bookingId().equals(bookingId));
+    }
+
+    /**
+     * Blocks until at least one reminder is due and returns every reminder due by then.
+     */
+    public List<Reminder> awaitDueReminders() throws InterruptedException {
+        List<Reminder> due = new ArrayList<>();
+        due.add(deadlines.take());
+        deadlines.drainTo(due);
+        return due;
+    }
+
+    /**
+     * Claims the reminders for {@code offset} and returns the bookings this call won.
+     * Every instance holds the same deadlines, so the claim is made in the database
+     * before anything is sent and only one instance gets each booking. Cancelled
+     * bookings and reminders already sent are not claimed.
+     */
+    public List<Booking> claimReminders(Collection<Long> bookingIds, Duration offset) {
+        if (bookingIds.isEmpty()) {
+            return List.of();
+        }
+        String claim = UUID.randomUUID().toString();
+        int claimed = bookingRepository.claimReminders(
+                bookingIds, BookingStatus.CONFIRMED, (int) offset.toMinutes(), claim);
+        return claimed == 0 ? List.of() : bookingRepository.findByIdInAndReminderClaim(bookingIds, claim);
+    }
+
+    /**
+     * Releases the claims on reminders that could not be sent and queues them again after
+     * {@code reminders.retry-delay}, as long as that is still before the appointment.
+     */
+    public void releaseReminders(List<Booking> bookings, Duration offset) {
+        bookings.stream()
+                .collect(Collectors.groupingBy(Booking::getReminderClaim,
+                        Collectors.mapping(Booking::getId, Collectors.toList())))
+                .forEach((claim, ids) -> bookingRepository.releaseReminders(ids, claim));
+
+        long retryAt = System.currentTimeMillis() + config.getReminders().getRetryDelay().toMillis();
+        for (Booking booking : bookings) {
+            if (retryAt < toEpochMillis(booking.getBookingDate().atTime(booking.getStartTime()))) {
+                deadlines.add(new Reminder(booking.getId(), offset, retryAt));
+            }
+        }
     }
 
-    public List<Booking> getBookingsForOneHourReminder() {
-        LocalDate today = LocalDate.now();
-        LocalTime now = LocalTime.now();
-        LocalTime oneHourLater = now.plusHours(1);
+    /**
+     * Whether the reminder for this offset still has to go out. Offsets are sent from
+     * largest to smallest, so only the smallest offset delivered so far is stored.
+     */
+    public boolean isPending(Booking booking, Duration offset) {
+        Integer lastSent = booking.getLastReminderOffsetMinutes();
+        return booking.getStatus() == BookingStatus.CONFIRMED
+                && (lastSent == null || offset.toMinutes() < lastSent);
+    }
 
-        return bookingRepository.findByStatusAndOneHourReminderSentFalseAndBookingDateAndStartTimeBetween(
-                BookingStatus.CONFIRMED, today, now, oneHourLater);
+    /**
+     * Fetches the services of a whole reminder batch in one query.
+     */
+    public Map<Long, BarberService> getServicesFor(List<Booking> bookings) {
+        return barberServiceService.findAllById(bookings.stream().map(Booking::getServiceId).distinct().toList());
     }
 
-    public String buildDayBeforeReminderMessage(Booking booking) {
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("EEEE, d MMMM");
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
+    public String buildReminderMessage(Booking booking, BarberService service, Duration offset) {
+        if (booking.getBookingDate().equals(LocalDate.now())) {
+            return buildSameDayReminderMessage(booking, service, offset);
+        }
+        return buildUpcomingReminderMessage(booking, service);
+    }
 
-        Optional<BarberService> serviceOpt = barberServiceService.findById(booking.getServiceId());
-        String serviceName = serviceOpt.map(BarberService::getName).orElse("Your appointment");
+    public String buildUpcomingReminderMessage(Booking booking, BarberService service) {
+        String serviceName = service != null ? service.getName() : "Your appointment";
+        String when = booking.getBookingDate().equals(LocalDate.now().plusDays(1))
+                ? "tomorrow"
+                : "on " + booking.getBookingDate().format(DATE_FORMATTER);
 
         return String.format("""
                 👋 Reminder!
 
-                You have an appointment tomorrow.
+                You have an appointment %s.
 
                 💈 %s
                 📅 %s
@@ -58,23 +179,21 @@ public class ReminderService {
 
                 💰 Amount due: €%.2f
 
-                See you tomorrow!
+                See you soon!
                 """,
+                when,
                 serviceName,
-                booking.getBookingDate().format(dateFormatter),
-                booking.getStartTime().format(timeFormatter),
+                booking.getBookingDate().format(DATE_FORMATTER),
+                booking.getStartTime().format(TIME_FORMATTER),
                 config.getAddress(),
                 booking.getRemainingBalance());
     }
 
-    public String buildOneHourReminderMessage(Booking booking) {
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
-
-        Optional<BarberService> serviceOpt = barberServiceService.findById(booking.getServiceId());
-        String serviceName = serviceOpt.map(BarberService::getName).orElse("Your appointment");
+    public String buildSameDayReminderMessage(Booking booking, BarberService service, Duration offset) {
+        String serviceName = service != null ? service.getName() : "Your appointment";
 
         return String.format("""
-                ⏰ Your appointment is in 1 hour!
+                ⏰ Your appointment is in %s!
 
                 💈 %s at %s
                 📍 %s
@@ -83,19 +202,39 @@ public class ReminderService {
 
                 See you soon!
                 """,
+                formatOffset(offset),
                 serviceName,
-                booking.getStartTime().format(timeFormatter),
+                booking.getStartTime().format(TIME_FORMATTER),
                 config.getAddress(),
                 booking.getRemainingBalance());
     }
 
-    public void markDayBeforeReminderSent(Booking booking) {
-        booking.setDayBeforeReminderSent(true);
-        bookingRepository.save(booking);
+    private String formatOffset(Duration offset) {
+        long hours = offset.toHours();
+        long minutes = offset.toMinutesPart();
+        if (hours > 0 && minutes == 0) {
+            return hours == 1 ? "1 hour" : hours + " hours";
+        }
+        if (hours > 0) {
+            return hours + "h " + minutes + "min";
+        }
+        return minutes == 1 ? "1 minute" : minutes + " minutes";
+    }
+
+    private long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
     }
 
-    public void markOneHourReminderSent(Booking booking) {
-        booking.setOneHourReminderSent(true);
-        bookingRepository.save(booking);
+    public record Reminder(Long bookingId, Duration offset, long dueAt) implements Delayed {
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueAt - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueAt, ((Reminder) other).dueAt);
+        }
     }
 }
@@ -0,0 +1,266 @@
+package com.telegram.service;
+
+import com.telegram.config.BarbershopConfig;
+import com.telegram.entity.Booking;
+import com.telegram.entity.Booking.BookingStatus;
+import com.telegram.repository.BookingRepository;
+import com.telegram.tracing.Tracer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps one minute-granularity occupancy bitmap per date so availability checks don't
+ * hit the database. Every active booking marks the minutes from its start to its end
+ * time, so a check only has to look for the next occupied minute after a start time.
+ * A date is loaded with a single query the first time it is requested (or together
+ * with the rest of the booking window via {@link #preload}) and is then updated in
+ * place when bookings are created, cancelled or completed.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SlotOccupancyService {
+
+    public static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.PENDING, BookingStatus.CONFIRMED);
+
+    private final BookingRepository bookingRepository;
+    private final BarbershopConfig config;
+    private final Tracer tracer;
+
+    private final Map<LocalDate, DayOccupancy> days = new ConcurrentHashMap<>();
+    private final AtomicLong modifications = new AtomicLong();
+    private final AtomicLong versions = new AtomicLong();
+
+    /**
+     * Whether a service of the given length can start at {@code time} without overlapping
+     * another booking or running past closing time.
+     */
+    public boolean isAvailable(LocalDate date, LocalTime time, int durationMinutes) {
+        int start = minuteIndex(time);
+        int end = start + durationMinutes;
+        if (start < 0 || end > openMinutes()) {
+            return false;
+        }
+        return occupancy(date).isFree(start, end);
+    }
+
+    public List<LocalTime> getFreeSlots(LocalDate date, LocalTime from, int durationMinutes) {
+        List<LocalTime> freeSlots = new ArrayList<>();
+        BitSet occupied = occupancy(date).snapshot();
+        int interval = config.getSlotIntervalMinutes();
+        int lastStart = openMinutes() - durationMinutes;
+
+        int start = alignToSlot(Math.max(minuteIndex(from), 0));
+        while (start <= lastStart) {
+            int nextOccupied = occupied.nextSetBit(start);
+            if (nextOccupied == -1 || nextOccupied >= start + durationMinutes) {
+                freeSlots.add(minuteTime(start));
+                start += interval;
+            } else {
+                // Jump straight past the booking that is in the way
+                start = alignToSlot(occupied.nextClearBit(nextOccupied));
+            }
+        }
+
+        return freeSlots;
+    }
+
+    public boolean hasFreeSlot(LocalDate date, LocalTime from, int durationMinutes) {
+        BitSet occupied = occupancy(date).snapshot();
+        int lastStart = openMinutes() - durationMinutes;
+
+        int start = alignToSlot(Math.max(minuteIndex(from), 0));
+        while (start <= lastStart) {
+            int nextOccupied = occupied.nextSetBit(start);
+            if (nextOccupied == -1 || nextOccupied >= start + durationMinutes) {
+                return true;
+            }
+            start = alignToSlot(occupied.nextClearBit(nextOccupied));
+        }
+        return false;
+    }
+
+    /**
+     * Changes whenever the date's occupancy does, including when it is reloaded, so
+     * callers can tell whether slots they computed earlier are still current.
+     */
+    public long getVersion(LocalDate date) {
+        return occupancy(date).getVersion();
+    }
+
+    /**
+     * Loads every date in the range that isn't cached yet with one range query.
+     */
+    public void preload(LocalDate from, LocalDate to) {
+        if (from.datesUntil(to.plusDays(1)).allMatch(days::containsKey)) {
+            return;
+        }
+
+        long modificationsBefore = modifications.get();
+        Map<LocalDate, List<Booking>> bookingsByDate;
+        try (Tracer.Scope span = tracer.span("occupancy.preload")) {
+            bookingsByDate = bookingRepository
+                    .findByBookingDateBetweenAndStatusIn(from, to, ACTIVE_STATUSES)
+                    .stream()
+                    .collect(Collectors.groupingBy(Booking::getBookingDate));
+        }
+
+        from.datesUntil(to.plusDays(1)).forEach(date -> days.computeIfAbsent(date, key -> {
+            // A booking changed while the range was read, leave the date to a single-date load
+            if (modifications.get() != modificationsBefore) {
+                return null;
+            }
+            return build(bookingsByDate.getOrDefault(date, List.of()));
+        }));
+        log.debug("Preloaded slot occupancy for {} to {}", from, to);
+    }
+
+    public void occupy(Booking booking) {
+        modifications.incrementAndGet();
+        // Dates that were never loaded pick the booking up from the database on first use
+        days.computeIfPresent(booking.getBookingDate(), (date, day) -> {
+            occupy(day, booking);
+            return day;
+        });
+    }
+
+    public void release(Booking booking) {
+        modifications.incrementAndGet();
+        days.computeIfPresent(booking.getBookingDate(), (date, day) -> {
+            day.release(booking.getId(), versions.incrementAndGet());
+            return day;
+        });
+    }
+
+    /**
+     * Drops a cached date so the next check reads it from the database again, used when
+     * the database knows about a booking this instance hasn't seen.
+     */
+    public void invalidate(LocalDate date) {
+        modifications.incrementAndGet();
+        days.remove(date);
+    }
+
+    /**
+     * Drops every cached date, for when bookings were removed behind this instance's back.
+     */
+    public void invalidateAll() {
+        modifications.incrementAndGet();
+        days.clear();
+    }
+
+    public void evictBefore(LocalDate date) {
+        days.keySet().removeIf(day -> day.isBefore(date));
+    }
+
+    private DayOccupancy occupancy(LocalDate date) {
+        return days.computeIfAbsent(date, this::load);
+    }
+
+    private DayOccupancy load(LocalDate date) {
+        log.debug("Loading slot occupancy for {}", date);
+        try (Tracer.Scope span = tracer.span("occupancy.load")) {
+            return build(bookingRepository.findByBookingDateAndStatusIn(date, ACTIVE_STATUSES));
+        }
+    }
+
+    private DayOccupancy build(List<Booking> bookings) {
+        DayOccupancy day = new DayOccupancy(versions.incrementAndGet());
+        for (Booking booking : bookings) {
+            occupy(day, booking);
+        }
+        return day;
+    }
+
+    private void occupy(DayOccupancy day, Booking booking) {
+        int start = Math.max(minuteIndex(booking.getStartTime()), 0);
+        int end = booking.getEndTime() != null && booking.getEndTime().isAfter(booking.getStartTime())
+                ? minuteIndex(booking.getEndTime())
+                : minuteIndex(booking.getStartTime()) + config.getSlotIntervalMinutes();
+        end = Math.min(end, openMinutes());
+
+        if (start < end) {
+            day.occupy(booking.getId(), start, end, versions.incrementAndGet());
+        }
+    }
+
+    private int minuteIndex(LocalTime time) {
+        return (time.toSecondOfDay() - config.getOpeningTime().toSecondOfDay()) / 60;
+    }
+
+    private LocalTime minuteTime(int minute) {
+        return config.getOpeningTime().plusMinutes(minute);
+    }
+
+    private int alignToSlot(int minute) {
+        int interval = config.getSlotIntervalMinutes();
+        return (minute + interval - 1) / interval * interval;
+    }
+
+    private int openMinutes() {
+        return (config.getClosingTime().toSecondOfDay() - config.getOpeningTime().toSecondOfDay()) / 60;
+    }
+
+    private static final class DayOccupancy {
+
+        private final Map<Long, int[]> intervalByBooking = new HashMap<>();
+        private final BitSet occupied = new BitSet();
+        private long version;
+
+        private DayOccupancy(long version) {
+            this.version = version;
+        }
+
+        synchronized void occupy(Long bookingId, int start, int end, long newVersion) {
+            version = newVersion;
+            int[] previous = intervalByBooking.put(bookingId, new int[]{start, end});
+            if (previous != null) {
+                rebuild(previous[0], previous[1]);
+            }
+            occupied.set(start, end);
+        }
+
+        synchronized void release(Long bookingId, long newVersion) {
+            version = newVersion;
+            int[] interval = intervalByBooking.remove(bookingId);
+            if (interval != null) {
+                rebuild(interval[0], interval[1]);
+            }
+        }
+
+        synchronized boolean isFree(int start, int end) {
+            int nextOccupied = occupied.nextSetBit(start);
+            return nextOccupied == -1 || nextOccupied >= end;
+        }
+
+        synchronized long getVersion() {
+            return version;
+        }
+
+        synchronized BitSet snapshot() {
+            return (BitSet) occupied.clone();
+        }
+
+        // Overlapping legacy bookings may share minutes, so re-mark whatever is still held
+        private void rebuild(int start, int end) {
+            occupied.clear(start, end);
+            for (int[] interval : intervalByBooking.values()) {
+                if (interval[0] < end && interval[1] > start) {
+                    occupied.set(Math.max(interval[0], start), Math.min(interval[1], end));
+                }
+            }
+        }
+    }
+}
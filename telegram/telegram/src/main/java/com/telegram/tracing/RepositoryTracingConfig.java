@@ -0,0 +1,41 @@
+package com.telegram.tracing;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.data.repository.core.support.RepositoryMethodInvocationListener;
+import org.springframework.util.function.SingletonSupplier;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Records every repository method call as a span of the current trace, the same hook
+ * Boot uses for its repository metrics.
+ */
+@Configuration
+public class RepositoryTracingConfig {
+
+    @Bean
+    public static BeanPostProcessor repositoryTracingPostProcessor(ObjectProvider<Tracer> tracer) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    RepositoryMethodInvocationListener listener = listener(SingletonSupplier.of(tracer::getObject));
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addInvocationListener(listener));
+                }
+                return bean;
+            }
+        };
+    }
+
+    // The tracer is looked up on first use, post processors are created before regular beans
+    private static RepositoryMethodInvocationListener listener(Supplier<Tracer> tracer) {
+        return invocation -> tracer.get().recordSpan(
+                invocation.getRepositoryInterface().getSimpleName() + "." + invocation.getMethod().getName(),
+                invocation.getDuration(TimeUnit.NANOSECONDS));
+    }
+}
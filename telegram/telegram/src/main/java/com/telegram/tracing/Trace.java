@@ -0,0 +1,81 @@
+package com.telegram.tracing;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * One traced update. Spans are appended as they finish; work that outlives the handler,
+ * like the queued Telegram call, may still add spans after the trace itself has ended.
+ */
+public final class Trace {
+
+    private final long id;
+    private final String name;
+    private final long key;
+    private final Instant startedAt = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final List<Span> spans = new ArrayList<>();
+    private int depth;
+    private volatile long durationNanos = -1;
+
+    Trace(long id, String name, long key) {
+        this.id = id;
+        this.name = name;
+        this.key = key;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * What the trace is about, e.g. the update id.
+     */
+    public long getKey() {
+        return key;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public long getDurationNanos() {
+        return durationNanos;
+    }
+
+    public synchronized List<Span> getSpans() {
+        List<Span> snapshot = new ArrayList<>(spans);
+        snapshot.sort(Comparator.comparingLong(Span::startOffsetNanos));
+        return snapshot;
+    }
+
+    public synchronized void add(String spanName, int spanDepth, long spanStartNanos, long spanEndNanos) {
+        spans.add(new Span(spanName, spanDepth, spanStartNanos - startNanos, spanEndNanos - spanStartNanos));
+    }
+
+    synchronized int enter() {
+        return depth++;
+    }
+
+    synchronized void exit(String spanName, int spanDepth, long spanStartNanos, long spanEndNanos) {
+        depth = spanDepth;
+        add(spanName, spanDepth, spanStartNanos, spanEndNanos);
+    }
+
+    synchronized int depth() {
+        return depth;
+    }
+
+    void finish() {
+        durationNanos = System.nanoTime() - startNanos;
+    }
+
+    public record Span(String name, int depth, long startOffsetNanos, long durationNanos) {
+    }
+}
@@ -0,0 +1,129 @@
+package com.telegram.tracing;
+
+import com.telegram.config.TelegramBotConfig;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Minimal in-process tracer for following a single update through the bot.
+ * <p>
+ * {@link #startTrace} binds a trace to the current thread and {@link #span} records
+ * nested spans into it. When the trace ends it is kept if it took longer than
+ * {@code telegram.bot.tracing.slow-threshold} or was picked by {@code sample-rate},
+ * and kept traces go into a fixed size ring buffer read by {@link TracesEndpoint}.
+ * With tracing disabled, or outside a trace, every call returns a shared no-op.
+ */
+@Component
+public class Tracer {
+
+    private static final Tracer DISABLED = new Tracer(new TelegramBotConfig());
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final long slowThresholdNanos;
+
+    private final ThreadLocal<Trace> current = new ThreadLocal<>();
+    private final AtomicReferenceArray<Trace> recent;
+    private final AtomicLong traceIds = new AtomicLong();
+    private final AtomicLong kept = new AtomicLong();
+
+    public Tracer(TelegramBotConfig telegramBotConfig) {
+        TelegramBotConfig.Tracing config = telegramBotConfig.getTracing();
+        this.enabled = config.getEnabled();
+        this.sampleRate = config.getSampleRate();
+        this.slowThresholdNanos = config.getSlowThreshold().toNanos();
+        this.recent = new AtomicReferenceArray<>(config.getBufferSize());
+    }
+
+    /**
+     * A tracer that records nothing, for code constructed outside the Spring context.
+     */
+    public static Tracer disabled() {
+        return DISABLED;
+    }
+
+    public Scope startTrace(String name, long key) {
+        if (!enabled) {
+            return Scope.NOOP;
+        }
+
+        Trace trace = new Trace(traceIds.incrementAndGet(), name, key);
+        current.set(trace);
+        return () -> {
+            current.remove();
+            trace.finish();
+            if (trace.getDurationNanos() >= slowThresholdNanos || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                recent.set((int) (kept.getAndIncrement() % recent.length()), trace);
+            }
+        };
+    }
+
+    public Scope span(String name) {
+        Trace trace = current.get();
+        if (trace == null) {
+            return Scope.NOOP;
+        }
+
+        long start = System.nanoTime();
+        int depth = trace.enter();
+        return () -> trace.exit(name, depth, start, System.nanoTime());
+    }
+
+    /**
+     * Same as {@link #span(String)}, the two parts are only joined if the span is recorded.
+     */
+    public Scope span(String name, String detail) {
+        return current.get() == null ? Scope.NOOP : span(name + " " + detail);
+    }
+
+    /**
+     * The trace bound to this thread, so work handed to another thread can still add
+     * spans to it. Null if there is none.
+     */
+    public Trace currentTrace() {
+        return current.get();
+    }
+
+    /**
+     * Adds a span that has already finished, e.g. one measured by a framework callback.
+     */
+    public void recordSpan(String name, long durationNanos) {
+        Trace trace = current.get();
+        if (trace != null) {
+            long end = System.nanoTime();
+            trace.add(name, trace.depth(), end - durationNanos, end);
+        }
+    }
+
+    public List<Trace> recentTraces() {
+        List<Trace> traces = new ArrayList<>(recent.length());
+        for (int i = 0; i < recent.length(); i++) {
+            Trace trace = recent.get(i);
+            if (trace != null) {
+                traces.add(trace);
+            }
+        }
+        traces.sort(Comparator.comparingLong(Trace::getId).reversed());
+        return traces;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+
+        Scope NOOP = () -> {
+        };
+
+        @Override
+        void close();
+    }
+}
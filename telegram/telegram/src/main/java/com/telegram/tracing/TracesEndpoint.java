@@ -0,0 +1,47 @@
+package com.telegram.tracing;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * {@code /actuator/traces}: the most recent kept traces, newest first, with span
+ * offsets and durations in microseconds.
+ */
+@Component
+@Endpoint(id = "traces")
+@RequiredArgsConstructor
+public class TracesEndpoint {
+
+    private final Tracer tracer;
+
+    @ReadOperation
+    public TracesView traces() {
+        List<TraceView> traces = tracer.recentTraces().stream()
+                .map(trace -> new TraceView(
+                        trace.getId(),
+                        trace.getName(),
+                        trace.getKey(),
+                        trace.getStartedAt(),
+                        trace.getDurationNanos() / 1_000,
+                        trace.getSpans().stream()
+                                .map(span -> new SpanView(span.name(), span.depth(),
+                                        span.startOffsetNanos() / 1_000, span.durationNanos() / 1_000))
+                                .toList()))
+                .toList();
+        return new TracesView(tracer.isEnabled(), traces);
+    }
+
+    public record TracesView(boolean enabled, List<TraceView> traces) {
+    }
+
+    public record TraceView(long id, String name, long key, Instant startedAt, long durationMicros, List<SpanView> spans) {
+    }
+
+    public record SpanView(String name, int depth, long startOffsetMicros, long durationMicros) {
+    }
+}
@@ -0,0 +1,145 @@
+package com.telegram.util;
+
+import com.telegram.config.BarbershopConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Generates booking codes that are unique by construction, so no database lookup is
+ * needed. Each code packs 40 bits into eight Crockford base32 characters:
+ * <pre>
+ *   31 bits  seconds since 2025-01-01 (good until 2093)
+ *    4 bits  node id ({@code barbershop.booking-code.node-id}), one per running instance
+ *    5 bits  sequence within the second
+ * </pre>
+ * followed by a Luhn mod 32 check character, e.g. {@code BK0K2V9QX4M}. Crockford's
+ * alphabet leaves out I, L, O and U, so codes survive being read out over the phone.
+ * <p>
+ * A node that issues more than 32 codes in one second borrows the following seconds,
+ * but never more than {@value #MAX_LEAD_SECONDS} ahead of the clock; beyond that it
+ * waits for the clock. A new generator starts past every second its predecessor on
+ * the node could have borrowed, so a restart doesn't issue a code a second time.
+ */
+@Component
+public class BookingCodeGenerator {
+
+    public static final String PREFIX = "BK";
+
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    private static final long EPOCH_SECONDS = Instant.parse("2025-01-01T00:00:00Z").getEpochSecond();
+    private static final int NODE_BITS = 4;
+    private static final int SEQUENCE_BITS = 5;
+    private static final int MAX_SEQUENCE = (1 << SEQUENCE_BITS) - 1;
+    private static final int PAYLOAD_LENGTH = 8;
+    private static final int MAX_LEAD_SECONDS = 4;
+    private static final long WAIT_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    // Codes issued before these were BK followed by four digits
+    private static final Pattern LEGACY_CODE = Pattern.compile("BK\\d{4}");
+
+    private final long nodeId;
+    private final LongSupplier epochSeconds;
+    private final long startSecond;
+
+    private long lastSecond;
+    private int sequence;
+
+    @Autowired
+    public BookingCodeGenerator(BarbershopConfig config) {
+        this(config, () -> Instant.now().getEpochSecond());
+    }
+
+    BookingCodeGenerator(BarbershopConfig config, LongSupplier epochSeconds) {
+        int node = config.getBookingCode().getNodeId();
+        if (node < 0 || node >= 1 << NODE_BITS) {
+            throw new IllegalArgumentException("barbershop.booking-code.node-id must be between 0 and "
+                    + ((1 << NODE_BITS) - 1) + " but was " + node);
+        }
+        this.nodeId = node;
+        this.epochSeconds = epochSeconds;
+
+        // The previous generator on this node may have borrowed up to MAX_LEAD_SECONDS ahead
+        this.startSecond = currentSecond() + MAX_LEAD_SECONDS + 1;
+        this.lastSecond = startSecond - 1;
+        this.sequence = MAX_SEQUENCE;
+    }
+
+    public String nextCode() {
+        long id = nextId();
+
+        char[] payload = new char[PAYLOAD_LENGTH];
+        for (int i = PAYLOAD_LENGTH - 1; i >= 0; i--) {
+            payload[i] = ALPHABET.charAt((int) (id & 31));
+            id >>>= 5;
+        }
+        return PREFIX + new String(payload) + checkCharacter(payload);
+    }
+
+    /**
+     * Whether the code has the expected shape and a matching check character, so typos
+     * can be rejected without a database lookup. Codes in the older four digit format
+     * are accepted as they are.
+     */
+    public static boolean isValid(String code) {
+        if (code != null && LEGACY_CODE.matcher(code).matches()) {
+            return true;
+        }
+        if (code == null || code.length() != PREFIX.length() + PAYLOAD_LENGTH + 1 || !code.startsWith(PREFIX)) {
+            return false;
+        }
+        char[] payload = code.substring(PREFIX.length(), code.length() - 1).toCharArray();
+        for (char c : payload) {
+            if (ALPHABET.indexOf(c) < 0) {
+                return false;
+            }
+        }
+        return checkCharacter(payload) == code.charAt(code.length() - 1);
+    }
+
+    private synchronized long nextId() {
+        while (true) {
+            long now = currentSecond();
+            long second = Math.max(now, lastSecond);
+            int next = 0;
+            if (second == lastSecond) {
+                if (sequence == MAX_SEQUENCE) {
+                    second++;
+                } else {
+                    next = sequence + 1;
+                }
+            }
+
+            if (second <= Math.max(now + MAX_LEAD_SECONDS, startSecond)) {
+                lastSecond = second;
+                sequence = next;
+                return (second << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+            }
+            // Borrowed as far ahead as allowed, wait for the clock to catch up
+            LockSupport.parkNanos(WAIT_NANOS);
+        }
+    }
+
+    private long currentSecond() {
+        return epochSeconds.getAsLong() - EPOCH_SECONDS;
+    }
+
+    // Luhn mod N over the code points of the alphabet
+    private static char checkCharacter(char[] payload) {
+        int n = ALPHABET.length();
+        int factor = 2;
+        int sum = 0;
+
+        for (int i = payload.length - 1; i >= 0; i--) {
+            int addend = factor * ALPHABET.indexOf(payload[i]);
+            factor = factor == 2 ? 1 : 2;
+            sum += addend / n + addend % n;
+        }
+
+        return ALPHABET.charAt((n - sum % n) % n);
+    }
+}
@@ -0,0 +1,106 @@
+package com.telegram.util;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+
+/**
+ * Typed form of an inline button's callback data. Encoded and decoded by {@link CallbackCodec}.
+ */
+public sealed interface Callback {
+
+    record Menu(MenuItem item) implements Callback {
+    }
+
+    record BirthdayAdd() implements Callback {
+    }
+
+    record BirthdaySkip() implements Callback {
+    }
+
+    record BirthdayMonth(Month month) implements Callback {
+    }
+
+    record BirthdayDay(int day, Month month) implements Callback {
+    }
+
+    record BirthdayConfirm(int day, Month month) implements Callback {
+    }
+
+    record SelectService(long serviceId) implements Callback {
+    }
+
+    record SelectDate(long serviceId, LocalDate date) implements Callback {
+    }
+
+    record SelectTime(long serviceId, LocalDate date, LocalTime time) implements Callback {
+    }
+
+    record ConfirmBooking(long serviceId, LocalDate date, LocalTime time) implements Callback {
+    }
+
+    record CancelBooking(String bookingCode) implements Callback {
+    }
+
+    record ConfirmCancel(String bookingCode) implements Callback {
+    }
+
+    /**
+     * The My Bookings page after the booking at {@code date} and {@code time}.
+     */
+    record MyBookingsPage(LocalDate date, LocalTime time, long bookingId) implements Callback {
+    }
+
+    /**
+     * Data that couldn't be decoded, e.g. a button for a service that no longer exists.
+     */
+    record Unknown(String data) implements Callback {
+    }
+
+    /**
+     * Main menu entries. The id is what goes on the wire, so existing ids must never change.
+     */
+    enum MenuItem {
+        MAIN(0, "main"),
+        SERVICES(1, "services"),
+        HELP(2, "help"),
+        ABOUT(3, "about"),
+        BOOK(4, "book"),
+        MY_BOOKINGS(5, "my_bookings"),
+        LOYALTY(6, "loyalty");
+
+        private final int id;
+        private final String legacyKey;
+
+        MenuItem(int id, String legacyKey) {
+            this.id = id;
+            this.legacyKey = legacyKey;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getLegacyKey() {
+            return legacyKey;
+        }
+
+        static MenuItem ofId(long id) {
+            for (MenuItem item : values()) {
+                if (item.id == id) {
+                    return item;
+                }
+            }
+            return null;
+        }
+
+        static MenuItem ofLegacyKey(String key) {
+            for (MenuItem item : values()) {
+                if (item.legacyKey.equals(key)) {
+                    return item;
+                }
+            }
+            return null;
+        }
+    }
+}
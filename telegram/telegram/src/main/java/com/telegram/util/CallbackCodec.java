@@ -0,0 +1,230 @@
+package com.telegram.util;
+
+import com.telegram.entity.BarberService;
+import com.telegram.service.BarberServiceService;
+import com.telegram.util.Callback.MenuItem;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+import java.util.Optional;
+
+/**
+ * Encodes {@link Callback}s into inline button data and back.
+ * <p>
+ * The current format (version 2) is a version digit, a one character action code and
+ * the action's fields separated by dots, e.g. {@code 2t3.20378.600} for "service 3 at
+ * 10:00 on epoch day 20378". Dates are epoch days, times minutes of the day and
+ * services ids, which keeps every button well below Telegram's 64 byte limit and lets
+ * {@link #decode} read the fields in one pass without formatters.
+ * <p>
+ * Data that doesn't start with a version digit is the original colon separated format
+ * (e.g. {@code select_date:2025-06-14:skin-fade}). It is still decoded, resolving slugs
+ * through the catalog, so buttons sent before a deploy keep working.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CallbackCodec {
+
+    static final char VERSION = '2';
+
+    private static final int MAX_CALLBACK_BYTES = 64;
+    private static final char SEPARATOR = '.';
+
+    private final BarberServiceService barberServiceService;
+
+    public String encode(Callback callback) {
+        StringBuilder data = new StringBuilder(24).append(VERSION);
+
+        switch (callback) {
+            case Callback.Menu menu -> data.append('m').append(menu.item().getId());
+            case Callback.BirthdayAdd ignored -> data.append('a');
+            case Callback.BirthdaySkip ignored -> data.append('k');
+            case Callback.BirthdayMonth month -> data.append('M').append(month.month().getValue());
+            case Callback.BirthdayDay day -> data.append('D')
+                    .append(day.day()).append(SEPARATOR).append(day.month().getValue());
+            case Callback.BirthdayConfirm confirm -> data.append('C')
+                    .append(confirm.day()).append(SEPARATOR).append(confirm.month().getValue());
+            case Callback.SelectService select -> data.append('s').append(select.serviceId());
+            case Callback.SelectDate select -> data.append('d')
+                    .append(select.serviceId()).append(SEPARATOR).append(select.date().toEpochDay());
+            case Callback.SelectTime select -> data.append('t')
+                    .append(select.serviceId()).append(SEPARATOR).append(select.date().toEpochDay())
+                    .append(SEPARATOR).append(minuteOfDay(select.time()));
+            case Callback.ConfirmBooking confirm -> data.append('b')
+                    .append(confirm.serviceId()).append(SEPARATOR).append(confirm.date().toEpochDay())
+                    .append(SEPARATOR).append(minuteOfDay(confirm.time()));
+            case Callback.CancelBooking cancel -> data.append('x').append(cancel.bookingCode());
+            case Callback.ConfirmCancel confirm -> data.append('X').append(confirm.bookingCode());
+            case Callback.MyBookingsPage page -> data.append('p')
+                    .append(page.date().toEpochDay()).append(SEPARATOR).append(minuteOfDay(page.time()))
+                    .append(SEPARATOR).append(page.bookingId());
+            case Callback.Unknown unknown -> throw new IllegalArgumentException("Cannot encode unknown callback " + unknown.data());
+        }
+
+        String encoded = data.toString();
+        if (encoded.getBytes(StandardCharsets.UTF_8).length > MAX_CALLBACK_BYTES) {
+            throw new IllegalArgumentException("Callback data exceeds " + MAX_CALLBACK_BYTES + " bytes: " + encoded);
+        }
+        return encoded;
+    }
+
+    public Callback decode(String data) {
+        if (data == null || data.isEmpty()) {
+            return new Callback.Unknown(data);
+        }
+
+        try {
+            Callback callback = data.charAt(0) == VERSION ? decodeCurrent(data) : decodeLegacy(data);
+            return callback != null ? callback : new Callback.Unknown(data);
+        } catch (RuntimeException e) {
+            log.debug("Could not decode callback data '{}': {}", data, e.getMessage());
+            return new Callback.Unknown(data);
+        }
+    }
+
+    private Callback decodeCurrent(String data) {
+        if (data.length() < 2) {
+            return null;
+        }
+        Reader reader = new Reader(data, 2);
+
+        return switch (data.charAt(1)) {
+            case 'm' -> {
+                MenuItem item = MenuItem.ofId(reader.nextLong());
+                yield item != null ? new Callback.Menu(item) : null;
+            }
+            case 'a' -> new Callback.BirthdayAdd();
+            case 'k' -> new Callback.BirthdaySkip();
+            case 'M' -> new Callback.BirthdayMonth(Month.of(reader.nextInt()));
+            case 'D' -> new Callback.BirthdayDay(reader.nextInt(), Month.of(reader.nextInt()));
+            case 'C' -> new Callback.BirthdayConfirm(reader.nextInt(), Month.of(reader.nextInt()));
+            case 's' -> new Callback.SelectService(reader.nextLong());
+            case 'd' -> new Callback.SelectDate(reader.nextLong(), LocalDate.ofEpochDay(reader.nextLong()));
+            case 't' -> new Callback.SelectTime(reader.nextLong(), LocalDate.ofEpochDay(reader.nextLong()),
+                    LocalTime.ofSecondOfDay(reader.nextInt() * 60L));
+            case 'b' -> new Callback.ConfirmBooking(reader.nextLong(), LocalDate.ofEpochDay(reader.nextLong()),
+                    LocalTime.ofSecondOfDay(reader.nextInt() * 60L));
+            case 'x' -> new Callback.CancelBooking(reader.rest());
+            case 'X' -> new Callback.ConfirmCancel(reader.rest());
+            case 'p' -> new Callback.MyBookingsPage(LocalDate.ofEpochDay(reader.nextLong()),
+                    LocalTime.ofSecondOfDay(reader.nextInt() * 60L), reader.nextLong());
+            default -> null;
+        };
+    }
+
+    /**
+     * Decodes the original {@code action:arg:arg} format. Only reached by buttons sent
+     * before the current format was introduced, so it isn't tuned.
+     */
+    private Callback decodeLegacy(String data) {
+        String[] parts = data.split(":");
+
+        return switch (parts[0]) {
+            case "menu" -> {
+                MenuItem item = MenuItem.ofLegacyKey(parts[1]);
+                yield item != null ? new Callback.Menu(item) : null;
+            }
+            case "birthday" -> switch (parts[1]) {
+                case "add" -> new Callback.BirthdayAdd();
+                case "skip" -> new Callback.BirthdaySkip();
+                default -> null;
+            };
+            case "birthday_month" -> new Callback.BirthdayMonth(legacyMonth(parts[1]));
+            case "birthday_day" -> new Callback.BirthdayDay(Integer.parseInt(parts[1]), legacyMonth(parts[2]));
+            case "birthday_confirm" -> new Callback.BirthdayConfirm(Integer.parseInt(parts[1]), legacyMonth(parts[2]));
+            case "select_service" -> serviceId(parts[1])
+                    .map(id -> (Callback) new Callback.SelectService(id))
+                    .orElse(null);
+            case "select_date" -> serviceId(parts[2])
+                    .map(id -> (Callback) new Callback.SelectDate(id, LocalDate.parse(parts[1])))
+                    .orElse(null);
+            case "select_time" -> serviceId(parts[3])
+                    .map(id -> (Callback) new Callback.SelectTime(id, LocalDate.parse(parts[2]), legacyTime(parts[1])))
+                    .orElse(null);
+            case "confirm_booking" -> serviceId(parts[3])
+                    .map(id -> (Callback) new Callback.ConfirmBooking(id, LocalDate.parse(parts[2]), legacyTime(parts[1])))
+                    .orElse(null);
+            case "cancel_booking" -> new Callback.CancelBooking(parts[1]);
+            case "confirm_cancel" -> new Callback.ConfirmCancel(parts[1]);
+            default -> null;
+        };
+    }
+
+    private Optional<Long> serviceId(String slug) {
+        return barberServiceService.findBySlug(slug).map(BarberService::getId);
+    }
+
+    private static Month legacyMonth(String month) {
+        return Month.valueOf(month.toUpperCase());
+    }
+
+    // Legacy times were written as HH-mm
+    private static LocalTime legacyTime(String time) {
+        return LocalTime.of(Integer.parseInt(time, 0, 2, 10), Integer.parseInt(time, 3, 5, 10));
+    }
+
+    private static int minuteOfDay(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    /**
+     * Cursor over the dot separated fields of an encoded callback.
+     */
+    private static final class Reader {
+
+        private final String data;
+        private int position;
+
+        private Reader(String data, int position) {
+            this.data = data;
+            this.position = position;
+        }
+
+        long nextLong() {
+            int length = data.length();
+            if (position >= length) {
+                throw new IllegalArgumentException("Missing field at " + position);
+            }
+
+            boolean negative = data.charAt(position) == '-';
+            if (negative) {
+                position++;
+            }
+
+            long value = 0;
+            int start = position;
+            while (position < length && data.charAt(position) != SEPARATOR) {
+                int digit = data.charAt(position) - '0';
+                if (digit < 0 || digit > 9) {
+                    throw new IllegalArgumentException("Unexpected character at " + position);
+                }
+                value = Math.addExact(Math.multiplyExact(value, 10), digit);
+                position++;
+            }
+            if (position == start) {
+                throw new IllegalArgumentException("Empty field at " + start);
+            }
+
+            // Step over the separator
+            position++;
+            return negative ? -value : value;
+        }
+
+        int nextInt() {
+            return Math.toIntExact(nextLong());
+        }
+
+        String rest() {
+            if (position >= data.length()) {
+                throw new IllegalArgumentException("Missing field at " + position);
+            }
+            return data.substring(position);
+        }
+    }
+}
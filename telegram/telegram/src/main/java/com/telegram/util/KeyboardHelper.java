@@ -3,10 +3,14 @@ package com.telegram.util;
 import com.telegram.config.BarbershopConfig;
 import com.telegram.entity.BarberService;
 import com.telegram.entity.Booking;
+import com.telegram.entity.Booking.BookingStatus;
 import com.telegram.entity.Customer;
+import com.telegram.repository.BookingSummary;
+import com.telegram.service.BookingPage;
+import com.telegram.util.Callback.MenuItem;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
-import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
 import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
 
@@ -16,48 +20,48 @@ import java.time.Month;
 import java.time.format.DateTimeFormatter;
 import java.time.format.TextStyle;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 
 @Component
 @RequiredArgsConstructor
 public class KeyboardHelper {
 
-    private final BarbershopConfig config;
-
-    public SendMessage buildMainMenu(Long chatId) {
-        String text = "Welcome! 👋\n\nPlease select an option:";
-
-        List<List<InlineKeyboardButton>> keyboard = new ArrayList<>();
-        keyboard.add(createButtonRow("📅 Book Appointment", "menu:book"));
-        keyboard.add(createButtonRow("💈 Our Services", "menu:services"));
-        keyboard.add(createButtonRow("📋 My Bookings", "menu:my_bookings"));
-        keyboard.add(createButtonRow("💎 Loyalty Points", "menu:loyalty"));
-        keyboard.add(createButtonRow("❓ Help", "menu:help"));
-        keyboard.add(createButtonRow("ℹ️ About", "menu:about"));
-
-        return buildMessage(chatId, text, keyboard);
-    }
+    private static final DateTimeFormatter SHORT_DATE_FORMATTER = DateTimeFormatter.ofPattern("EEE, d MMM");
+    private static final DateTimeFormatter LONG_DATE_FORMATTER = DateTimeFormatter.ofPattern("EEEE, d MMMM yyyy");
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
 
-    public SendMessage buildServicesMenu(Long chatId, List<BarberService> services) {
-        StringBuilder text = new StringBuilder("💈 Our Services:\n\n");
-
-        for (BarberService service : services) {
-            text.append(String.format("✂️ %s\n   €%.2f • %d minutes\n\n",
-                    service.getName(),
-                    service.getPrice(),
-                    service.getDurationMinutes()));
-        }
-
-        List<List<InlineKeyboardButton>> keyboard = new ArrayList<>();
-        keyboard.add(createButtonRow("📅 Book Now", "menu:book"));
-        keyboard.add(createButtonRow("🔙 Back to Menu", "menu:main"));
-
-        return buildMessage(chatId, text.toString(), keyboard);
-    }
-
-    public SendMessage buildHelpMenu(Long chatId) {
-        String text = """
+    private final BarbershopConfig config;
+    private final CallbackCodec callbackCodec;
+
+    private MessageTemplate mainMenu;
+    private MessageTemplate helpMenu;
+    private MessageTemplate aboutMenu;
+    private MessageTemplate birthdayPrompt;
+    private MessageTemplate birthdayMonthSelection;
+    private Map<Month, MessageTemplate> birthdayDaySelections;
+    private MessageTemplate dateExpired;
+    private MessageTemplate slotUnavailable;
+    private MessageTemplate noAvailableDates;
+
+    /**
+     * Renders the messages that don't depend on the update. Only the chat and message
+     * ids are bound per send; the text and markup are shared.
+     */
+    @PostConstruct
+    public void renderTemplates() {
+        mainMenu = template("Welcome! 👋\n\nPlease select an option:", List.of(
+                createButtonRow("📅 Book Appointment", menu(MenuItem.BOOK)),
+                createButtonRow("💈 Our Services", menu(MenuItem.SERVICES)),
+                createButtonRow("📋 My Bookings", menu(MenuItem.MY_BOOKINGS)),
+                createButtonRow("💎 Loyalty Points", menu(MenuItem.LOYALTY)),
+                createButtonRow("❓ Help", menu(MenuItem.HELP)),
+                createButtonRow("ℹ️ About", menu(MenuItem.ABOUT))));
+
+        helpMenu = template("""
                 ❓ Help
 
                 📅 Booking: Select 'Book Appointment' and follow the steps
@@ -69,16 +73,10 @@ public class KeyboardHelper {
                 🎂 Birthday: Add your birthday on first booking for special rewards
 
                 📍 Location: %s
-                """.formatted(config.getDepositPercentage(), config.getAddress());
-
-        List<List<InlineKeyboardButton>> keyboard = new ArrayList<>();
-        keyboard.add(createButtonRow("🔙 Back to Menu", "menu:main"));
+                """.formatted(config.getDepositPercentage(), config.getAddress()),
+                List.of(createButtonRow("🔙 Back to Menu", menu(MenuItem.MAIN))));
 
-        return buildMessage(chatId, text, keyboard);
-    }
-
-    public SendMessage buildAboutMenu(Long chatId) {
-        String text = """
+        aboutMenu = template("""
                 ℹ️  %s
 
 
@@ -99,129 +97,170 @@ public class KeyboardHelper {
                 config.getPhoneNumber(),
                 config.getOpeningTime(),
                 config.getClosingTime(),
-                config.getClosedDays());
-
-        List<List<InlineKeyboardButton>> keyboard = new ArrayList<>();
-        keyboard.add(createButtonRow("🔙 Back to Menu", "menu:main"));
-
-        return buildMessage(chatId, text, keyboard);
-    }
+                config.getClosedDays()),
+                List.of(createButtonRow("🔙 Back to Menu", menu(MenuItem.MAIN))));
 
-    public SendMessage buildBirthdayPrompt(Long chatId) {
-        String text = """
+        birthdayPrompt = template("""
                 🎂 Before we continue...
 
                 We encourage you to add your birthday so we can offer you special discounts and rewards on your special day!
 
                 This is a one-time prompt - we won't ask again.
-                """;
+                """, List.of(
+                createButtonRow("🎂 Add Birthday", callbackCodec.encode(new Callback.BirthdayAdd())),
+                createButtonRow("➡️ Skip", callbackCodec.encode(new Callback.BirthdaySkip()))));
 
-        List<List<InlineKeyboardButton>> keyboard = new ArrayList<>();
-        keyboard.add(createButtonRow("🎂 Add Birthday", "birthday:add"));
-        keyboard.add(createButtonRow("➡️ Skip", "birthday:skip"));
+        birthdayMonthSelection = renderBirthdayMonthSelection();
 
-        return buildMessage(chatId, text, keyboard);
-    }
+        Map<Month, MessageTemplate> daySelections = new EnumMap<>(Month.class);
+        for (Month month : Month.values()) {
+            daySelections.put(month, renderBirthdayDaySelection(month));
+        }
+        birthdayDaySelections = Collections.unmodifiableMap(daySelections);
 
-    public SendMessage buildBirthdayMonthSelection(Long chatId) {
-        String text = "🎂 Select your birth month:";
+        dateExpired = template("⚠️ This date/time has already passed.\n\nPlease select a new date and time.", List.of(
+                createButtonRow("📅 Book Again", menu(MenuItem.BOOK)),
+                createButtonRow("🔙 Back to Menu", menu(MenuItem.MAIN))));
 
+        slotUnavailable = template("⚠️ This time slot is no longer available.\n\nPlease select a different time.", List.of(
+                createButtonRow("📅 Book Again", menu(MenuItem.BOOK)),
+                createButtonRow("🔙 Back to Menu", menu(MenuItem.MAIN))));
+
+        noAvailableDates = template("😔 Sorry, there are no available dates at the moment.\n\nPlease try again later.",
+                List.of(createButtonRow("🔙 Back to Menu", menu(MenuItem.MAIN))));
+    }
+
+    private MessageTemplate renderBirthdayMonthSelection() {
         List<List<InlineKeyboardButton>> keyboard = new ArrayList<>();
         List<InlineKeyboardButton> row = new ArrayList<>();
 
         for (Month month : Month.values()) {
             String monthName = month.getDisplayName(TextStyle.SHORT, Locale.ENGLISH);
-            row.add(createButton(monthName, "birthday_month:" + month.name().toLowerCase()));
+            row.add(createButton(monthName, callbackCodec.encode(new Callback.BirthdayMonth(month))));
 
             if (row.size() == 3) {
-                keyboard.add(row);
+                keyboard.add(List.copyOf(row));
                 row = new ArrayList<>();
             }
         }
 
-        keyboard.add(createButtonRow("❌ Cancel", "menu:main"));
+        keyboard.add(createButtonRow("❌ Cancel", menu(MenuItem.MAIN)));
 
-        return buildMessage(chatId, text, keyboard);
+        return template("🎂 Select your birth month:", keyboard);
     }
 
-    public SendMessage buildBirthdayDaySelection(Long chatId, String month) {
-        String text = "🎂 Select your birth day:";
-        Month monthEnum = Month.valueOf(month.toUpperCase());
-        int daysInMonth = monthEnum.maxLength();
-
+    private MessageTemplate renderBirthdayDaySelection(Month month) {
         List<List<InlineKeyboardButton>> keyboard = new ArrayList<>();
         List<InlineKeyboardButton> row = new ArrayList<>();
 
-        for (int day = 1; day <= daysInMonth; day++) {
-            row.add(createButton(String.valueOf(day), "birthday_day:" + day + ":" + month));
+        for (int day = 1; day <= month.maxLength(); day++) {
+            row.add(createButton(String.valueOf(day), callbackCodec.encode(new Callback.BirthdayDay(day, month))));
 
             if (row.size() == 7) {
-                keyboard.add(row);
+                keyboard.add(List.copyOf(row));
                 row = new ArrayList<>();
             }
         }
 
         if (!row.isEmpty()) {
-            keyboard.add(row);
+            keyboard.add(List.copyOf(row));
+        }
+
+        keyboard.add(createButtonRow("🔙 Back", callbackCodec.encode(new Callback.BirthdayAdd())));
+
+        return template("🎂 Select your birth day:", keyboard);
+    }
+
+    public MessageTemplate buildMainMenu() {
+        return mainMenu;
+    }
+
+    public MessageTemplate buildServicesMenu(List<BarberService> services) {
+        StringBuilder text = new StringBuilder("💈 Our Services:\n\n");
+
+        for (BarberService service : services) {
+            text.append(String.format("✂️ %s\n   €%.2f • %d minutes\n\n",
+                    service.getName(),
+                    service.getPrice(),
+                    service.getDurationMinutes()));
         }
 
-        keyboard.add(createButtonRow("🔙 Back", "birthday:add"));
+        List<List<InlineKeyboardButton>> keyboard = new ArrayList<>();
+        keyboard.add(createButtonRow("📅 Book Now", menu(MenuItem.BOOK)));
+        keyboard.add(createButtonRow("🔙 Back to Menu", menu(MenuItem.MAIN)));
+
+        return template(text.toString(), keyboard);
+    }
+
+    public MessageTemplate buildHelpMenu() {
+        return helpMenu;
+    }
 
-        return buildMessage(chatId, text, keyboard);
+    public MessageTemplate buildAboutMenu() {
+        return aboutMenu;
     }
 
-    public SendMessage buildBirthdayConfirmation(Long chatId, int day, String month) {
-        String monthDisplay = Month.valueOf(month.toUpperCase()).getDisplayName(TextStyle.FULL, Locale.ENGLISH);
+    public MessageTemplate buildBirthdayPrompt() {
+        return birthdayPrompt;
+    }
+
+    public MessageTemplate buildBirthdayMonthSelection() {
+        return birthdayMonthSelection;
+    }
+
+    public MessageTemplate buildBirthdayDaySelection(Month month) {
+        return birthdayDaySelections.get(month);
+    }
+
+    public MessageTemplate buildBirthdayConfirmation(int day, Month month) {
+        String monthDisplay = month.getDisplayName(TextStyle.FULL, Locale.ENGLISH);
         String text = String.format("🎂 Your birthday is set to %d %s.\n\nThis cannot be changed later.", day, monthDisplay);
 
         List<List<InlineKeyboardButton>> keyboard = new ArrayList<>();
-        keyboard.add(createButtonRow("✅ Confirm", "birthday_confirm:" + day + ":" + month));
-        keyboard.add(createButtonRow("🔙 Change", "birthday:add"));
+        keyboard.add(createButtonRow("✅ Confirm", callbackCodec.encode(new Callback.BirthdayConfirm(day, month))));
+        keyboard.add(createButtonRow("🔙 Change", callbackCodec.encode(new Callback.BirthdayAdd())));
 
-        return buildMessage(chatId, text, keyboard);
+        return template(text, keyboard);
     }
 
-    public SendMessage buildServiceSelection(Long chatId, List<BarberService> services) {
+    public MessageTemplate buildServiceSelection(List<BarberService> services) {
         String text = "💈 Select a service:";
 
         List<List<InlineKeyboardButton>> keyboard = new ArrayList<>();
 
         for (BarberService service : services) {
             String buttonText = String.format("%s - €%.2f", service.getName(), service.getPrice());
-            keyboard.add(createButtonRow(buttonText, "select_service:" + service.getSlug()));
+            keyboard.add(createButtonRow(buttonText, callbackCodec.encode(new Callback.SelectService(service.getId()))));
         }
 
-        keyboard.add(createButtonRow("🔙 Back to Menu", "menu:main"));
+        keyboard.add(createButtonRow("🔙 Back to Menu", menu(MenuItem.MAIN)));
 
-        return buildMessage(chatId, text, keyboard);
+        return template(text, keyboard);
     }
 
-    public SendMessage buildDateSelection(Long chatId, List<LocalDate> availableDates, String serviceSlug) {
+    public MessageTemplate buildDateSelection(List<LocalDate> availableDates, BarberService service) {
         String text = "📅 Select a date:";
-        DateTimeFormatter formatter = DateTimeFormatter.ofPattern("EEE, d MMM");
 
         List<List<InlineKeyboardButton>> keyboard = new ArrayList<>();
 
         for (LocalDate date : availableDates) {
-            String buttonText = date.format(formatter);
-            keyboard.add(createButtonRow(buttonText, "select_date:" + date + ":" + serviceSlug));
+            String buttonText = date.format(SHORT_DATE_FORMATTER);
+            keyboard.add(createButtonRow(buttonText, callbackCodec.encode(new Callback.SelectDate(service.getId(), date))));
         }
 
-        keyboard.add(createButtonRow("🔙 Back", "menu:book"));
+        keyboard.add(createButtonRow("🔙 Back", menu(MenuItem.BOOK)));
 
-        return buildMessage(chatId, text, keyboard);
+        return template(text, keyboard);
     }
 
-    public SendMessage buildTimeSelection(Long chatId, List<LocalTime> availableSlots, LocalDate date, String serviceSlug) {
+    public MessageTemplate buildTimeSelection(List<LocalTime> availableSlots, LocalDate date, BarberService service) {
         String text = "⏰ Select a time:";
-        DateTimeFormatter displayFormatter = DateTimeFormatter.ofPattern("HH:mm");
-        DateTimeFormatter callbackFormatter = DateTimeFormatter.ofPattern("HH-mm");
 
         List<List<InlineKeyboardButton>> keyboard = new ArrayList<>();
         List<InlineKeyboardButton> row = new ArrayList<>();
 
         for (LocalTime slot : availableSlots) {
-            row.add(createButton(slot.format(displayFormatter), "select_time:" + slot.format(callbackFormatter) + ":" + date + ":" + serviceSlug));
+            row.add(createButton(slot.format(TIME_FORMATTER), callbackCodec.encode(new Callback.SelectTime(service.getId(), date, slot))));
 
             if (row.size() == 3) {
                 keyboard.add(row);
@@ -233,15 +272,12 @@ public class KeyboardHelper {
             keyboard.add(row);
         }
 
-        keyboard.add(createButtonRow("🔙 Back", "select_service:" + serviceSlug));
+        keyboard.add(createButtonRow("🔙 Back", callbackCodec.encode(new Callback.SelectService(service.getId()))));
 
-        return buildMessage(chatId, text, keyboard);
+        return template(text, keyboard);
     }
 
-    public SendMessage buildBookingSummary(Long chatId, BarberService service, LocalDate date, LocalTime time) {
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("EEEE, d MMMM yyyy");
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
-
+    public MessageTemplate buildBookingSummary(BarberService service, LocalDate date, LocalTime time) {
         var depositAmount = service.getPrice()
                 .multiply(java.math.BigDecimal.valueOf(config.getDepositPercentage()))
                 .divide(java.math.BigDecimal.valueOf(100), 2, java.math.RoundingMode.HALF_UP);
@@ -259,27 +295,23 @@ public class KeyboardHelper {
                 🏪 Due at shop: €%.2f
                 """,
                 service.getName(),
-                date.format(dateFormatter),
-                time.format(timeFormatter),
+                date.format(LONG_DATE_FORMATTER),
+                time.format(TIME_FORMATTER),
                 service.getPrice(),
                 config.getDepositPercentage(),
                 depositAmount,
                 remainingBalance);
 
-        DateTimeFormatter callbackFormatter = DateTimeFormatter.ofPattern("HH-mm");
-        String callbackData = "confirm_booking:" + time.format(callbackFormatter) + ":" + date + ":" + service.getSlug();
+        String callbackData = callbackCodec.encode(new Callback.ConfirmBooking(service.getId(), date, time));
 
         List<List<InlineKeyboardButton>> keyboard = new ArrayList<>();
         keyboard.add(createButtonRow("✅ Confirm Booking", callbackData));
-        keyboard.add(createButtonRow("❌ Cancel", "menu:main"));
+        keyboard.add(createButtonRow("❌ Cancel", menu(MenuItem.MAIN)));
 
-        return buildMessage(chatId, text, keyboard);
+        return template(text, keyboard);
     }
 
-    public SendMessage buildBookingConfirmed(Long chatId, Booking booking, BarberService service) {
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("EEEE, d MMMM yyyy");
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
-
+    public MessageTemplate buildBookingConfirmed(Booking booking, BarberService service) {
         String text = String.format("""
                 ✅ Booking Confirmed!
 
@@ -296,59 +328,67 @@ public class KeyboardHelper {
                 """,
                 booking.getBookingCode(),
                 service.getName(),
-                booking.getBookingDate().format(dateFormatter),
-                booking.getStartTime().format(timeFormatter),
+                booking.getBookingDate().format(LONG_DATE_FORMATTER),
+                booking.getStartTime().format(TIME_FORMATTER),
                 config.getAddress(),
                 service.getPrice());
 
         List<List<InlineKeyboardButton>> keyboard = new ArrayList<>();
-        keyboard.add(createButtonRow("🔙 Back to Menu", "menu:main"));
+        keyboard.add(createButtonRow("🔙 Back to Menu", menu(MenuItem.MAIN)));
 
-        return buildMessage(chatId, text, keyboard);
+        return template(text, keyboard);
     }
 
-    public SendMessage buildMyBookings(Long chatId, List<Booking> bookings, java.util.Map<Long, BarberService> serviceMap) {
-        if (bookings.isEmpty()) {
+    public MessageTemplate buildMyBookings(BookingPage page) {
+        if (page.bookings().isEmpty()) {
             String text = "📋 You have no upcoming bookings.";
             List<List<InlineKeyboardButton>> keyboard = new ArrayList<>();
-            keyboard.add(createButtonRow("📅 Book Now", "menu:book"));
-            keyboard.add(createButtonRow("🔙 Back to Menu", "menu:main"));
-            return buildMessage(chatId, text, keyboard);
+            keyboard.add(createButtonRow("📅 Book Now", menu(MenuItem.BOOK)));
+            keyboard.add(createButtonRow("🔙 Back to Menu", menu(MenuItem.MAIN)));
+            return template(text, keyboard);
         }
 
         StringBuilder text = new StringBuilder("📋 Your Bookings:\n\n");
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("EEE, d MMM");
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
 
         List<List<InlineKeyboardButton>> keyboard = new ArrayList<>();
 
-        for (Booking booking : bookings) {
-            BarberService service = serviceMap.get(booking.getServiceId());
-            String serviceName = service != null ? service.getName() : "Unknown Service";
+        for (BookingSummary booking : page.bookings()) {
+            String serviceName = booking.getServiceName() != null ? booking.getServiceName() : "Unknown Service";
+            String price = booking.getPrice() != null ? String.format(" • €%.2f", booking.getPrice()) : "";
 
-            String statusText = booking.getStatus() == Booking.BookingStatus.PENDING
+            String statusText = booking.getStatus() == BookingStatus.PENDING
                     ? "⏳ Pending Deposit"
                     : "✅ Confirmed";
 
-            text.append(String.format("🔖 %s\n💈 %s\n📅 %s at %s\nStatus: %s\n\n",
+            text.append(String.format("🔖 %s\n💈 %s%s\n📅 %s at %s\nStatus: %s\n\n",
                     booking.getBookingCode(),
                     serviceName,
-                    booking.getBookingDate().format(dateFormatter),
-                    booking.getStartTime().format(timeFormatter),
+                    price,
+                    booking.getBookingDate().format(SHORT_DATE_FORMATTER),
+                    booking.getStartTime().format(TIME_FORMATTER),
                     statusText));
 
-            keyboard.add(createButtonRow("❌ Cancel " + booking.getBookingCode(), "cancel_booking:" + booking.getBookingCode()));
+            keyboard.add(createButtonRow("❌ Cancel " + booking.getBookingCode(), callbackCodec.encode(new Callback.CancelBooking(booking.getBookingCode()))));
         }
 
-        keyboard.add(createButtonRow("🔙 Back to Menu", "menu:main"));
+        List<InlineKeyboardButton> navigation = new ArrayList<>();
+        if (!page.first()) {
+            navigation.add(createButton("⏮ First", menu(MenuItem.MY_BOOKINGS)));
+        }
+        if (page.hasMore()) {
+            BookingSummary last = page.last();
+            navigation.add(createButton("Next ▶", callbackCodec.encode(
+                    new Callback.MyBookingsPage(last.getBookingDate(), last.getStartTime(), last.getId()))));
+        }
+        if (!navigation.isEmpty()) {
+            keyboard.add(navigation);
+        }
+        keyboard.add(createButtonRow("🔙 Back to Menu", menu(MenuItem.MAIN)));
 
-        return buildMessage(chatId, text.toString(), keyboard);
+        return template(text.toString(), keyboard);
     }
 
-    public SendMessage buildCancelConfirmation(Long chatId, Booking booking, BarberService service) {
-        DateTimeFormatter dateFormatter = DateTimeFormatter.ofPattern("EEE, d MMM");
-        DateTimeFormatter timeFormatter = DateTimeFormatter.ofPattern("HH:mm");
-
+    public MessageTemplate buildCancelConfirmation(Booking booking, BarberService service) {
         String text = String.format("""
                 ⚠️ Cancel Booking?
 
@@ -359,65 +399,48 @@ public class KeyboardHelper {
                 """,
                 booking.getBookingCode(),
                 service.getName(),
-                booking.getBookingDate().format(dateFormatter),
-                booking.getStartTime().format(timeFormatter));
+                booking.getBookingDate().format(SHORT_DATE_FORMATTER),
+                booking.getStartTime().format(TIME_FORMATTER));
 
         List<List<InlineKeyboardButton>> keyboard = new ArrayList<>();
-        keyboard.add(createButtonRow("Yes, Cancel", "confirm_cancel:" + booking.getBookingCode()));
-        keyboard.add(createButtonRow("No, Keep It", "menu:my_bookings"));
+        keyboard.add(createButtonRow("Yes, Cancel", callbackCodec.encode(new Callback.ConfirmCancel(booking.getBookingCode()))));
+        keyboard.add(createButtonRow("No, Keep It", menu(MenuItem.MY_BOOKINGS)));
 
-        return buildMessage(chatId, text, keyboard);
+        return template(text, keyboard);
     }
 
-    public SendMessage buildCancellationSuccess(Long chatId, String bookingCode) {
+    public MessageTemplate buildCancellationSuccess(String bookingCode) {
         String text = String.format("✅ Booking %s has been cancelled.", bookingCode);
 
         List<List<InlineKeyboardButton>> keyboard = new ArrayList<>();
-        keyboard.add(createButtonRow("🔙 Back to Menu", "menu:main"));
+        keyboard.add(createButtonRow("🔙 Back to Menu", menu(MenuItem.MAIN)));
 
-        return buildMessage(chatId, text, keyboard);
+        return template(text, keyboard);
     }
 
-    public SendMessage buildDateExpiredMessage(Long chatId) {
-        String text = "⚠️ This date/time has already passed.\n\nPlease select a new date and time.";
-
-        List<List<InlineKeyboardButton>> keyboard = new ArrayList<>();
-        keyboard.add(createButtonRow("📅 Book Again", "menu:book"));
-        keyboard.add(createButtonRow("🔙 Back to Menu", "menu:main"));
-
-        return buildMessage(chatId, text, keyboard);
+    public MessageTemplate buildDateExpiredMessage() {
+        return dateExpired;
     }
 
-    public SendMessage buildSlotUnavailableMessage(Long chatId) {
-        String text = "⚠️ This time slot is no longer available.\n\nPlease select a different time.";
-
-        List<List<InlineKeyboardButton>> keyboard = new ArrayList<>();
-        keyboard.add(createButtonRow("📅 Book Again", "menu:book"));
-        keyboard.add(createButtonRow("🔙 Back to Menu", "menu:main"));
-
-        return buildMessage(chatId, text, keyboard);
+    public MessageTemplate buildSlotUnavailableMessage() {
+        return slotUnavailable;
     }
 
-    public SendMessage buildNoAvailableDatesMessage(Long chatId) {
-        String text = "😔 Sorry, there are no available dates at the moment.\n\nPlease try again later.";
-
-        List<List<InlineKeyboardButton>> keyboard = new ArrayList<>();
-        keyboard.add(createButtonRow("🔙 Back to Menu", "menu:main"));
-
-        return buildMessage(chatId, text, keyboard);
+    public MessageTemplate buildNoAvailableDatesMessage() {
+        return noAvailableDates;
     }
 
-    public SendMessage buildNoAvailableSlotsMessage(Long chatId, String serviceSlug) {
+    public MessageTemplate buildNoAvailableSlotsMessage(BarberService service) {
         String text = "😔 Sorry, there are no available time slots for this date.\n\nPlease select a different date.";
 
         List<List<InlineKeyboardButton>> keyboard = new ArrayList<>();
-        keyboard.add(createButtonRow("📅 Choose Another Date", "select_service:" + serviceSlug));
-        keyboard.add(createButtonRow("🔙 Back to Menu", "menu:main"));
+        keyboard.add(createButtonRow("📅 Choose Another Date", callbackCodec.encode(new Callback.SelectService(service.getId()))));
+        keyboard.add(createButtonRow("🔙 Back to Menu", menu(MenuItem.MAIN)));
 
-        return buildMessage(chatId, text, keyboard);
+        return template(text, keyboard);
     }
 
-    public SendMessage buildLoyaltyStatus(Long chatId, Customer customer) {
+    public MessageTemplate buildLoyaltyStatus(Customer customer) {
         int nextMilestone = getNextMilestone(customer.getCompletedBookings());
         int bookingsToNext = nextMilestone - customer.getCompletedBookings();
 
@@ -441,10 +464,10 @@ public class KeyboardHelper {
                 bookingsToNext);
 
         List<List<InlineKeyboardButton>> keyboard = new ArrayList<>();
-        keyboard.add(createButtonRow("📅 Book Now", "menu:book"));
-        keyboard.add(createButtonRow("🔙 Back to Menu", "menu:main"));
+        keyboard.add(createButtonRow("📅 Book Now", menu(MenuItem.BOOK)));
+        keyboard.add(createButtonRow("🔙 Back to Menu", menu(MenuItem.MAIN)));
 
-        return buildMessage(chatId, text, keyboard);
+        return template(text, keyboard);
     }
 
     private int getNextMilestone(int completedBookings) {
@@ -459,6 +482,10 @@ public class KeyboardHelper {
         return milestones.isEmpty() ? 5 : milestones.get(milestones.size() - 1);
     }
 
+    private String menu(MenuItem item) {
+        return callbackCodec.encode(new Callback.Menu(item));
+    }
+
     private InlineKeyboardButton createButton(String text, String callbackData) {
         InlineKeyboardButton button = new InlineKeyboardButton();
         button.setText(text);
@@ -473,15 +500,9 @@ public class KeyboardHelper {
         return List.of(button);
     }
 
-    private SendMessage buildMessage(Long chatId, String text, List<List<InlineKeyboardButton>> keyboard) {
-        SendMessage message = new SendMessage();
-        message.setChatId(chatId);
-        message.setText(text);
-
+    private MessageTemplate template(String text, List<List<InlineKeyboardButton>> keyboard) {
         InlineKeyboardMarkup markup = new InlineKeyboardMarkup();
-        markup.setKeyboard(keyboard);
-        message.setReplyMarkup(markup);
-
-        return message;
+        markup.setKeyboard(List.copyOf(keyboard));
+        return new MessageTemplate(text, markup);
     }
 }
@@ -0,0 +1,42 @@
+package com.telegram.util;
+
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageReplyMarkup;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
+
+/**
+ * Text and keyboard of a bot message, bound either to a new message or to an edit of
+ * one already in the chat. Templates rendered once are shared between sends, so the
+ * markup must not be modified after the template is built.
+ */
+public record MessageTemplate(String text, InlineKeyboardMarkup markup) {
+
+    public SendMessage bind(Long chatId) {
+        SendMessage message = new SendMessage();
+        message.setChatId(chatId);
+        message.setText(text);
+        message.setReplyMarkup(markup);
+        return message;
+    }
+
+    public EditMessageText bindEdit(Long chatId, Integer messageId) {
+        EditMessageText edit = new EditMessageText();
+        edit.setChatId(chatId);
+        edit.setMessageId(messageId);
+        edit.setText(text);
+        edit.setReplyMarkup(markup);
+        return edit;
+    }
+
+    /**
+     * Replaces only the keyboard, for when the message's text is already this template's.
+     */
+    public EditMessageReplyMarkup bindMarkupEdit(Long chatId, Integer messageId) {
+        EditMessageReplyMarkup edit = new EditMessageReplyMarkup();
+        edit.setChatId(chatId);
+        edit.setMessageId(messageId);
+        edit.setReplyMarkup(markup);
+        return edit;
+    }
+}
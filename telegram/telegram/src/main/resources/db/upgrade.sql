@@ -0,0 +1,32 @@
+-- Schema changes that ddl-auto: update can't make on an existing database. Hibernate only
+-- adds missing tables, columns and indexes, so anything renamed or dropped in the entities
+-- has to be removed by hand, and data for new columns carried over from the old ones. Run
+-- once per environment after deploying the matching change, which adds the new columns.
+
+-- Reminder flags replaced by bookings.last_reminder_offset_minutes. Carry the sent flags
+-- over first, so upgraded bookings don't get the same reminders again.
+UPDATE bookings
+SET last_reminder_offset_minutes = CASE
+        WHEN one_hour_reminder_sent = TRUE THEN 60
+        WHEN day_before_reminder_sent = TRUE THEN 1440
+    END
+WHERE last_reminder_offset_minutes IS NULL;
+ALTER TABLE bookings DROP COLUMN day_before_reminder_sent;
+ALTER TABLE bookings DROP COLUMN one_hour_reminder_sent;
+
+-- bookings.active_slot holds the slot of every PENDING or CONFIRMED booking, so the unique key
+-- on it stops a second booking of the same slot. Fill it in for bookings made before the
+-- column existed; two active bookings of one slot fail this update and have to be
+-- cancelled or moved first.
+UPDATE bookings
+SET active_slot = TIMESTAMP(booking_date, start_time)
+WHERE status IN ('PENDING', 'CONFIRMED')
+  AND active_slot IS NULL;
+
+-- Unique keys on bookings.booking_code and bookings.active_slot are now named
+-- uk_bookings_booking_code and uk_bookings_active_slot. Drop the keys Hibernate generated on
+-- those columns before, so a violation always reports the named constraint. The generated
+-- names are hashes of the table and column names, so they are the same in every
+-- environment; SHOW INDEX FROM bookings lists them if a drop fails.
+ALTER TABLE bookings DROP INDEX UKq97166k18hklq6ls46osbrftx;
+ALTER TABLE bookings DROP INDEX UKkilychlcto11m1hijxcjlennd;
@@ -0,0 +1,125 @@
+package com.telegram.bot;
+
+import com.telegram.config.TelegramBotConfig;
+import com.telegram.service.MessageSender;
+import com.telegram.util.MessageTemplate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageReplyMarkup;
+import org.telegram.telegrambots.meta.api.methods.updatingmessages.EditMessageText;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.InlineKeyboardMarkup;
+import org.telegram.telegrambots.meta.api.objects.replykeyboard.buttons.InlineKeyboardButton;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class MessageEditorTests {
+
+    private static final Long CHAT_ID = 584120377L;
+    private static final Integer MESSAGE_ID = 17;
+
+    private final MessageSender messageSender = mock(MessageSender.class);
+
+    private MessageEditor editor;
+
+    @BeforeEach
+    void setUp() {
+        succeed();
+        editor = new MessageEditor(messageSender, new TelegramBotConfig());
+    }
+
+    @Test
+    void firstEditReplacesTextAndKeyboard() {
+        editor.edit(CHAT_ID, MESSAGE_ID, template("Pick a service", "haircut"));
+
+        assertThat(sent()).singleElement().isInstanceOf(EditMessageText.class);
+    }
+
+    @Test
+    void unchangedContentIsNotSentAgain() {
+        editor.edit(CHAT_ID, MESSAGE_ID, template("Pick a service", "haircut"));
+        editor.edit(CHAT_ID, MESSAGE_ID, template("Pick a service", "haircut"));
+
+        assertThat(sent()).hasSize(1);
+        assertThat(editor.getSkippedEdits()).isEqualTo(1);
+    }
+
+    @Test
+    void keyboardOnlyChangeEditsJustTheMarkup() {
+        editor.edit(CHAT_ID, MESSAGE_ID, template("Pick a service", "haircut"));
+        editor.edit(CHAT_ID, MESSAGE_ID, template("Pick a service", "beard"));
+
+        List<BotApiMethod<?>> sent = sent();
+        assertThat(sent).hasSize(2);
+        assertThat(sent.getLast()).isInstanceOf(EditMessageReplyMarkup.class);
+    }
+
+    @Test
+    void failedEditIsSentAsANewMessage() {
+        fail("Bad Request: message to edit not found");
+        editor.edit(CHAT_ID, MESSAGE_ID, template("Pick a service", "haircut"));
+
+        List<BotApiMethod<?>> sent = sent();
+        assertThat(sent).hasSize(2);
+        assertThat(sent.getFirst()).isInstanceOf(EditMessageText.class);
+        assertThat(sent.getLast()).isInstanceOf(SendMessage.class);
+
+        // What the failed edit would have shown is forgotten, so the next one isn't skipped
+        succeed();
+        editor.edit(CHAT_ID, MESSAGE_ID, template("Pick a service", "haircut"));
+        assertThat(sent()).hasSize(3);
+        assertThat(editor.getSkippedEdits()).isZero();
+    }
+
+    @Test
+    void notModifiedIsNotSentAsANewMessage() {
+        fail("Bad Request: message is not modified");
+        editor.edit(CHAT_ID, MESSAGE_ID, template("Pick a service", "haircut"));
+
+        assertThat(sent()).singleElement().isInstanceOf(EditMessageText.class);
+    }
+
+    @Test
+    void withoutAMessageIdANewMessageIsSent() {
+        editor.edit(CHAT_ID, null, template("Pick a service", "haircut"));
+
+        assertThat(sent()).singleElement().isInstanceOf(SendMessage.class);
+    }
+
+    private void succeed() {
+        doReturn(CompletableFuture.completedFuture(null))
+                .when(messageSender).send(any(), any(), any());
+    }
+
+    private void fail(String description) {
+        doReturn(CompletableFuture.failedFuture(new TelegramApiRequestException(description)))
+                .doReturn(CompletableFuture.completedFuture(null))
+                .when(messageSender).send(any(), any(), any());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<BotApiMethod<?>> sent() {
+        ArgumentCaptor<BotApiMethod<?>> methods = ArgumentCaptor.forClass(BotApiMethod.class);
+        verify(messageSender, atLeast(0))
+                .send(eq(CHAT_ID), methods.capture(), eq(MessageSender.Priority.INTERACTIVE));
+        return methods.getAllValues();
+    }
+
+    private static MessageTemplate template(String text, String button) {
+        InlineKeyboardButton choice = new InlineKeyboardButton(button);
+        choice.setCallbackData(button);
+        return new MessageTemplate(text, new InlineKeyboardMarkup(List.of(List.of(choice))));
+    }
+}
@@ -0,0 +1,22 @@
+package com.telegram.bot;
+
+import com.telegram.config.TelegramBotConfig;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+class TelegramBotInitializerTests {
+
+    @Test
+    void webhookModeWithoutSecretFailsStartup() {
+        TelegramBotConfig config = new TelegramBotConfig();
+        config.setMode(TelegramBotConfig.Mode.WEBHOOK);
+        config.getWebhook().setSecretToken(" ");
+        TelegramBotInitializer initializer = new TelegramBotInitializer(mock(TelegramBot.class), config);
+
+        assertThatThrownBy(initializer::init)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("secret-token");
+    }
+}
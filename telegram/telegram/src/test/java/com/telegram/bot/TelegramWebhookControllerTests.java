@@ -0,0 +1,106 @@
+package com.telegram.bot;
+
+import com.telegram.config.TelegramBotConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(controllers = TelegramWebhookController.class, properties = {
+        "telegram.bot.mode=webhook",
+        "server.port=0"
+})
+class TelegramWebhookControllerTests {
+
+    private static final String SECRET = "webhook-test-secret";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private TelegramBot telegramBot;
+
+    @MockitoBean
+    private TelegramBotConfig telegramBotConfig;
+
+    @BeforeEach
+    void setUp() {
+        TelegramBotConfig.Webhook webhook = new TelegramBotConfig.Webhook();
+        webhook.setSecretToken(SECRET);
+        when(telegramBotConfig.getWebhook()).thenReturn(webhook);
+    }
+
+    @Test
+    void recordedMessageUpdateIsHandedToTheBot() throws Exception {
+        mockMvc.perform(post("/telegram/webhook")
+                        .header(TelegramWebhookController.SECRET_TOKEN_HEADER, SECRET)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(recorded("updates/start-message.json")))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(telegramBot).onUpdateReceived(update.capture());
+        assertThat(update.getValue().getUpdateId()).isEqualTo(730412001);
+        assertThat(update.getValue().getMessage().getChatId()).isEqualTo(584120377L);
+        assertThat(update.getValue().getMessage().getText()).isEqualTo("/start");
+    }
+
+    @Test
+    void recordedCallbackUpdateIsHandedToTheBot() throws Exception {
+        mockMvc.perform(post("/telegram/webhook")
+                        .header(TelegramWebhookController.SECRET_TOKEN_HEADER, SECRET)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(recorded("updates/select-service-callback.json")))
+                .andExpect(status().isOk());
+
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(telegramBot).onUpdateReceived(update.capture());
+        assertThat(update.getValue().hasCallbackQuery()).isTrue();
+        assertThat(update.getValue().getCallbackQuery().getData()).isEqualTo("select_service:skin-fade");
+        assertThat(update.getValue().getCallbackQuery().getMessage().getMessageId()).isEqualTo(312);
+    }
+
+    @Test
+    void updateWithWrongSecretIsRejected() throws Exception {
+        mockMvc.perform(post("/telegram/webhook")
+                        .header(TelegramWebhookController.SECRET_TOKEN_HEADER, "not-the-secret")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(recorded("updates/start-message.json")))
+                .andExpect(status().isUnauthorized());
+
+        verify(telegramBot, never()).onUpdateReceived(any());
+    }
+
+    @Test
+    void updateIsRejectedWhenNoSecretIsConfigured() throws Exception {
+        when(telegramBotConfig.getWebhook()).thenReturn(new TelegramBotConfig.Webhook());
+
+        mockMvc.perform(post("/telegram/webhook")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(recorded("updates/start-message.json")))
+                .andExpect(status().isUnauthorized());
+
+        verify(telegramBot, never()).onUpdateReceived(any());
+    }
+
+    private String recorded(String path) throws IOException {
+        return new ClassPathResource(path).getContentAsString(StandardCharsets.UTF_8);
+    }
+}
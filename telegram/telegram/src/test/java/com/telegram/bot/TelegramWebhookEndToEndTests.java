@@ -0,0 +1,117 @@
+package com.telegram.bot;
+
+import com.telegram.repository.CustomerRepository;
+import com.telegram.service.CustomerService;
+import com.telegram.service.MessageSender;
+import com.telegram.util.KeyboardHelper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.telegram.telegrambots.meta.api.methods.BotApiMethod;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Posts recorded updates to the webhook of the whole application, so they go through
+ * the real bot, dispatcher, deduplicator and services. Only the edges are replaced:
+ * the outbound queue, so replies are captured instead of sent, and the initializer,
+ * so no webhook is registered with Telegram.
+ */
+@SpringBootTest(properties = {
+        "telegram.bot.name=Test Barbershop Bot",
+        "telegram.bot.username=test_barbershop_bot",
+        "telegram.bot.token=test-token",
+        "telegram.bot.url=https://bot.example.test",
+        "telegram.bot.mode=webhook",
+        "telegram.bot.webhook.secret-token=" + TelegramWebhookEndToEndTests.SECRET
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TelegramWebhookEndToEndTests {
+
+    static final String SECRET = "webhook-test-secret";
+    private static final Long CHAT_ID = 584120377L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private KeyboardHelper keyboardHelper;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @MockitoBean
+    private MessageSender messageSender;
+
+    @MockitoBean
+    private TelegramBotInitializer telegramBotInitializer;
+
+    @BeforeEach
+    void setUp() {
+        doReturn(CompletableFuture.completedFuture(null))
+                .when(messageSender).send(any(), any(), any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        customerRepository.deleteAll();
+        customerService.evictAll();
+    }
+
+    @Test
+    void startMessageRegistersTheCustomerAndRepliesOnceWithTheMainMenu() throws Exception {
+        postUpdate("updates/start-message.json");
+        // Telegram redelivers when it misses the 200, the repeat must not be answered again
+        postUpdate("updates/start-message.json");
+
+        ArgumentCaptor<BotApiMethod<?>> reply = ArgumentCaptor.forClass(BotApiMethod.class);
+        verify(messageSender, timeout(5_000)).send(eq(CHAT_ID), any(), any());
+        verify(messageSender, after(500).times(1))
+                .send(eq(CHAT_ID), reply.capture(), eq(MessageSender.Priority.INTERACTIVE));
+
+        SendMessage message = (SendMessage) reply.getValue();
+        assertThat(message.getChatId()).isEqualTo(CHAT_ID.toString());
+        assertThat(message.getText()).isEqualTo(keyboardHelper.buildMainMenu().text());
+        assertThat(message.getReplyMarkup()).isNotNull();
+        assertThat(customerRepository.findById(CHAT_ID))
+                .hasValueSatisfying(customer -> assertThat(customer.getTelegramUsername()).isEqualTo("cian_d"));
+    }
+
+    private void postUpdate(String path) throws Exception {
+        mockMvc.perform(post("/telegram/webhook")
+                        .header(TelegramWebhookController.SECRET_TOKEN_HEADER, SECRET)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(recorded(path)))
+                .andExpect(status().isOk());
+    }
+
+    private String recorded(String path) throws IOException {
+        return new ClassPathResource(path).getContentAsString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,140 @@
+package com.telegram.bot;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.telegram.config.TelegramBotConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.telegram.telegrambots.meta.api.objects.Message;
+import org.telegram.telegrambots.meta.api.objects.Update;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UpdateDeduplicatorTests {
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private UpdateDeduplicator deduplicator;
+
+    @BeforeEach
+    void setUp() {
+        TelegramBotConfig config = new TelegramBotConfig();
+        config.getDeduplication().setUpdateWindow(64);
+        config.getDeduplication().setCallbackWindow(64);
+        deduplicator = new UpdateDeduplicator(config);
+    }
+
+    @Test
+    void redeliveredUpdateIsDuplicate() throws IOException {
+        assertThat(deduplicator.isDuplicate(recorded("updates/start-message.json"))).isFalse();
+        assertThat(deduplicator.isDuplicate(recorded("updates/start-message.json"))).isTrue();
+        assertThat(deduplicator.getDuplicateUpdates()).isEqualTo(1);
+    }
+
+    @Test
+    void updateOlderThanTheWindowIsDuplicate() throws IOException {
+        Update old = recorded("updates/start-message.json");
+        Update newer = recorded("updates/start-message.json");
+        newer.setUpdateId(old.getUpdateId() + 64);
+
+        assertThat(deduplicator.isDuplicate(newer)).isFalse();
+        assertThat(deduplicator.isDuplicate(old)).isTrue();
+    }
+
+    @Test
+    void updateIdsRestartingFarBelowAreNotDuplicates() throws IOException {
+        Update last = recorded("updates/start-message.json");
+        Update restarted = recorded("updates/start-message.json");
+        restarted.setUpdateId(last.getUpdateId() - 5_000_000);
+        Update redelivered = recorded("updates/start-message.json");
+        redelivered.setUpdateId(restarted.getUpdateId());
+
+        assertThat(deduplicator.isDuplicate(last)).isFalse();
+        assertThat(deduplicator.isDuplicate(restarted)).isFalse();
+        assertThat(deduplicator.isDuplicate(redelivered)).isTrue();
+    }
+
+    @Test
+    void secondTapOnTheSameButtonIsDuplicate() throws IOException {
+        Update first = recorded("updates/select-service-callback.json");
+        Update second = recorded("updates/select-service-callback.json");
+        second.setUpdateId(first.getUpdateId() + 1);
+
+        assertThat(deduplicator.isDuplicate(first)).isFalse();
+        assertThat(deduplicator.isDuplicate(second)).isTrue();
+        assertThat(deduplicator.getDuplicateTaps()).isEqualTo(1);
+    }
+
+    @Test
+    void tapOnTheEditedMessageIsNotDuplicate() throws IOException {
+        Update first = recorded("updates/select-service-callback.json");
+        Update afterEdit = recorded("updates/select-service-callback.json");
+        afterEdit.setUpdateId(first.getUpdateId() + 1);
+        ((Message) afterEdit.getCallbackQuery().getMessage()).setEditDate(first.getCallbackQuery().getMessage().getDate() + 5);
+
+        assertThat(deduplicator.isDuplicate(first)).isFalse();
+        assertThat(deduplicator.isDuplicate(afterEdit)).isFalse();
+    }
+
+    @Test
+    void tapWithoutMessageIsStillDeduplicated() throws IOException {
+        Update first = recorded("updates/select-service-callback.json");
+        first.getCallbackQuery().setMessage(null);
+        first.getCallbackQuery().setInlineMessageId("AAMCAgADGQEAAQ");
+        Update second = recorded("updates/select-service-callback.json");
+        second.setUpdateId(first.getUpdateId() + 1);
+        second.getCallbackQuery().setMessage(null);
+        second.getCallbackQuery().setInlineMessageId("AAMCAgADGQEAAQ");
+
+        assertThat(deduplicator.isDuplicate(first)).isFalse();
+        assertThat(deduplicator.isDuplicate(second)).isTrue();
+    }
+
+    @Test
+    void concurrentRedeliveriesPassExactlyOnce() throws Exception {
+        int threads = 16;
+        int updates = 500;
+        Update template = recorded("updates/start-message.json");
+        AtomicInteger passed = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            for (int i = 0; i < threads; i++) {
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    for (int id = 1; id <= updates; id++) {
+                        Update update = new Update();
+                        update.setUpdateId(template.getUpdateId() + id);
+                        update.setMessage(template.getMessage());
+                        if (!deduplicator.isDuplicate(update)) {
+                            passed.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+
+        assertThat(passed.get()).isEqualTo(updates);
+    }
+
+    private Update recorded(String path) throws IOException {
+        return objectMapper.readValue(new ClassPathResource(path).getInputStream(), Update.class);
+    }
+}
@@ -0,0 +1,103 @@
+package com.telegram.service;
+
+import com.telegram.entity.Booking;
+import com.telegram.entity.Booking.BookingStatus;
+import com.telegram.repository.BookingSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingPageTests extends DatabaseTestSupport {
+
+    private static final Long CHAT_ID = 584120377L;
+
+    @Autowired
+    private BookingService bookingService;
+
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        date = openDay(1);
+    }
+
+    @Test
+    void pagesWalkEveryActiveBookingOnceInOrder() {
+        int pageSize = config.getMyBookingsPageSize();
+        List<Long> expected = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            expected.add(save(CHAT_ID, date, LocalTime.of(9, 0).plusMinutes(30L * i), BookingStatus.CONFIRMED));
+        }
+        // Same start as the first page's last booking, only the id tells them apart
+        LocalTime shared = LocalTime.of(9, 0).plusMinutes(30L * (pageSize - 1));
+        expected.add(save(CHAT_ID, date, shared, BookingStatus.PENDING));
+        expected.add(save(CHAT_ID, date.plusDays(1), LocalTime.of(10, 0), BookingStatus.CONFIRMED));
+        // Neither is listed
+        save(CHAT_ID, date, LocalTime.of(12, 0), BookingStatus.CANCELLED);
+        save(7L, date, LocalTime.of(13, 0), BookingStatus.CONFIRMED);
+
+        BookingPage first = bookingService.getActiveBookingsPage(CHAT_ID);
+        assertThat(first.first()).isTrue();
+        assertThat(first.hasMore()).isTrue();
+        assertThat(first.bookings()).hasSize(pageSize);
+
+        BookingSummary last = first.last();
+        BookingPage second = bookingService.getActiveBookingsPageAfter(
+                CHAT_ID, last.getBookingDate(), last.getStartTime(), last.getId());
+        assertThat(second.first()).isFalse();
+        assertThat(second.hasMore()).isFalse();
+
+        List<Long> listed = new ArrayList<>();
+        first.bookings().forEach(booking -> listed.add(booking.getId()));
+        second.bookings().forEach(booking -> listed.add(booking.getId()));
+        assertThat(listed).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void fullLastPageHasNoNextPage() {
+        for (int i = 0; i < config.getMyBookingsPageSize(); i++) {
+            save(CHAT_ID, date, LocalTime.of(9, 0).plusMinutes(30L * i), BookingStatus.CONFIRMED);
+        }
+
+        assertThat(bookingService.getActiveBookingsPage(CHAT_ID).hasMore()).isFalse();
+    }
+
+    @Test
+    void summaryCarriesTheServiceNameAndPriceUnlessTheServiceIsGone() {
+        save(CHAT_ID, date, LocalTime.of(9, 0), BookingStatus.CONFIRMED);
+        Booking deletedService = booking(CHAT_ID, date, LocalTime.of(10, 0), BookingStatus.CONFIRMED);
+        deletedService.setServiceId(-1L);
+        Long orphan = bookingRepository.save(deletedService).getId();
+
+        List<BookingSummary> bookings = bookingService.getActiveBookingsPage(CHAT_ID).bookings();
+
+        assertThat(bookings.getFirst().getServiceName()).isEqualTo("Haircut");
+        assertThat(bookings.getFirst().getPrice()).isEqualByComparingTo(haircut.getPrice());
+        assertThat(bookings.getLast().getId()).isEqualTo(orphan);
+        assertThat(bookings.getLast().getServiceName()).isNull();
+        assertThat(bookings.getLast().getPrice()).isNull();
+    }
+
+    private Long save(Long chatId, LocalDate day, LocalTime time, BookingStatus status) {
+        return bookingRepository.save(booking(chatId, day, time, status)).getId();
+    }
+
+    private Booking booking(Long chatId, LocalDate day, LocalTime time, BookingStatus status) {
+        return Booking.builder()
+                .bookingCode("BK" + chatId + day.toEpochDay() + time.toSecondOfDay() + status.ordinal())
+                .customerChatId(chatId)
+                .serviceId(haircut.getId())
+                .bookingDate(day)
+                .startTime(time)
+                .endTime(time.plusMinutes(haircut.getDurationMinutes()))
+                .status(status)
+                .build();
+    }
+}
@@ -0,0 +1,143 @@
+package com.telegram.service;
+
+import com.telegram.config.BarbershopConfig;
+import com.telegram.entity.Booking;
+import com.telegram.tracing.Tracer;
+import com.telegram.util.BookingCodeGenerator;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingServiceReservationTests extends DatabaseTestSupport {
+
+    private static final int THREADS = 16;
+    private static final int DAYS = 3;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Test
+    void concurrentReservationsNeverDoubleBookASlot() throws Exception {
+        // A second instance with its own cache and locks, so only the database can stop it
+        BarbershopConfig secondNodeConfig = new BarbershopConfig();
+        secondNodeConfig.getBookingCode().setNodeId(1);
+        BookingService secondNode = new BookingService(
+                bookingRepository,
+                new SlotOccupancyService(bookingRepository, config, Tracer.disabled()),
+                reminderService,
+                new BookingCodeGenerator(secondNodeConfig),
+                config,
+                Tracer.disabled());
+
+        List<LocalDateTime> slots = openSlots();
+        AtomicInteger reserved = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                BookingService node = i % 2 == 0 ? bookingService : secondNode;
+                long chatId = 1000L + i;
+                workers.add(pool.submit(() -> {
+                    List<LocalDateTime> attempts = new ArrayList<>(slots);
+                    Collections.shuffle(attempts);
+                    start.await();
+                    for (LocalDateTime slot : attempts) {
+                        boolean won = node.reserve(chatId, haircut, slot.toLocalDate(), slot.toLocalTime()).isPresent();
+                        (won ? reserved : rejected).incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+
+        List<Booking> bookings = bookingRepository.findAll();
+        Map<LocalDateTime, Long> bookingsPerSlot = bookings.stream()
+                .collect(Collectors.groupingBy(booking -> booking.getBookingDate().atTime(booking.getStartTime()),
+                        Collectors.counting()));
+
+        assertThat(bookingsPerSlot.values()).allMatch(count -> count == 1);
+        assertThat(bookings).hasSize(reserved.get());
+        assertThat(reserved.get()).isEqualTo(slots.size());
+        assertThat(rejected.get()).isEqualTo((THREADS - 1) * slots.size());
+        assertThat(bookings.stream().map(Booking::getBookingCode).distinct()).hasSize(bookings.size());
+    }
+
+    @Test
+    void cancelledSlotCanBeReservedAgain() {
+        LocalDateTime slot = openSlots().getFirst();
+
+        Booking first = bookingService.reserve(1L, haircut, slot.toLocalDate(), slot.toLocalTime()).orElseThrow();
+        assertThat(bookingService.reserve(2L, haircut, slot.toLocalDate(), slot.toLocalTime())).isEmpty();
+
+        bookingService.cancelBooking(first);
+
+        assertThat(bookingService.reserve(2L, haircut, slot.toLocalDate(), slot.toLocalTime())).isPresent();
+    }
+
+    @Test
+    void bookingCodeCollisionIsRetriedWithANewCode() {
+        List<LocalDateTime> slots = openSlots();
+        Booking first = bookingService.reserve(1L, haircut, slots.get(0).toLocalDate(), slots.get(0).toLocalTime())
+                .orElseThrow();
+
+        // Hands out the first booking's code once, as a node restarted while borrowing seconds could
+        BookingCodeGenerator repeating = new BookingCodeGenerator(config) {
+            private boolean repeated;
+
+            @Override
+            public String nextCode() {
+                if (!repeated) {
+                    repeated = true;
+                    return first.getBookingCode();
+                }
+                return super.nextCode();
+            }
+        };
+        BookingService node = new BookingService(
+                bookingRepository, slotOccupancyService, reminderService, repeating, config, Tracer.disabled());
+
+        Booking second = node.reserve(2L, haircut, slots.get(1).toLocalDate(), slots.get(1).toLocalTime())
+                .orElseThrow();
+
+        assertThat(second.getBookingCode()).isNotEqualTo(first.getBookingCode());
+        assertThat(bookingRepository.findAll()).hasSize(2);
+    }
+
+    private List<LocalDateTime> openSlots() {
+        List<LocalDateTime> slots = new ArrayList<>();
+        for (int day = 1; day <= DAYS; day++) {
+            LocalDate date = LocalDate.now().plusDays(day);
+            for (LocalTime time = config.getOpeningTime();
+                 !time.plusMinutes(config.getSlotIntervalMinutes()).isAfter(config.getClosingTime());
+                 time = time.plusMinutes(config.getSlotIntervalMinutes())) {
+                slots.add(date.atTime(time));
+            }
+        }
+        return slots;
+    }
+}
@@ -0,0 +1,62 @@
+package com.telegram.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BookingSessionServiceTests extends DatabaseTestSupport {
+
+    private static final Long CHAT_ID = 42L;
+
+    @Autowired
+    private BookingSessionService bookingSessionService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    private LocalDate date;
+
+    @BeforeEach
+    void setUp() {
+        date = openDay(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingSessionService.finish(CHAT_ID);
+    }
+
+    @Test
+    void unchangedDateReusesTheDraftsSlots() {
+        bookingSessionService.selectService(CHAT_ID, haircut.getId());
+        BookingDraft first = bookingSessionService.selectDate(CHAT_ID, haircut.getId(), date).orElseThrow();
+        BookingDraft second = bookingSessionService.selectDate(CHAT_ID, haircut.getId(), date).orElseThrow();
+
+        assertThat(first.slots()).isNotEmpty();
+        assertThat(second.slots()).isSameAs(first.slots());
+    }
+
+    @Test
+    void slotTakenAfterItWasShownIsNoLongerOffered() {
+        BookingDraft draft = bookingSessionService.selectDate(CHAT_ID, haircut.getId(), date).orElseThrow();
+        LocalTime time = draft.slots().getFirst();
+
+        bookingService.reserve(7L, haircut, date, time).orElseThrow();
+
+        BookingDraft selected = bookingSessionService.selectTime(CHAT_ID, haircut.getId(), date, time).orElseThrow();
+        assertThat(selected.isOffered(time)).isFalse();
+        assertThat(selected.occupancyVersion()).isNotEqualTo(draft.occupancyVersion());
+    }
+
+    @Test
+    void missingServiceHasNoDraft() {
+        assertThat(bookingSessionService.selectService(CHAT_ID, -1L)).isEmpty();
+        assertThat(bookingSessionService.selectDate(CHAT_ID, -1L, date)).isEmpty();
+    }
+}
@@ -0,0 +1,97 @@
+package com.telegram.service;
+
+import com.telegram.config.BarbershopConfig;
+import com.telegram.config.TelegramBotConfig;
+import com.telegram.entity.BarberService;
+import com.telegram.repository.BarberServiceRepository;
+import com.telegram.repository.BookingRepository;
+import com.telegram.repository.CustomerRepository;
+import com.telegram.tracing.Tracer;
+import com.telegram.util.BookingCodeGenerator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Shared fixture for the service tests against H2. Every subclass gets the same
+ * context, so Spring builds it once per run. Tests commit for real (no rollback), as
+ * concurrent threads have to see each other's writes; {@link #clearDatabase} empties
+ * the tables and resets the in-memory state that would otherwise outlive them.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnableConfigurationProperties
+@Import({BookingSessionService.class, BookingService.class, AvailabilityService.class, SlotOccupancyService.class,
+        ReminderService.class, BarberServiceService.class, CustomerService.class, LoyaltyService.class,
+        BirthdayService.class, BookingCodeGenerator.class, BarbershopConfig.class, Tracer.class,
+        TelegramBotConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+abstract class DatabaseTestSupport {
+
+    @Autowired
+    protected BookingRepository bookingRepository;
+
+    @Autowired
+    protected CustomerRepository customerRepository;
+
+    @Autowired
+    protected BarberServiceRepository barberServiceRepository;
+
+    @Autowired
+    protected BarberServiceService barberServiceService;
+
+    @Autowired
+    protected SlotOccupancyService slotOccupancyService;
+
+    @Autowired
+    protected CustomerService customerService;
+
+    @Autowired
+    protected BarbershopConfig config;
+
+    // One slot long, so two bookings overlap exactly when they share a start time
+    protected BarberService haircut;
+
+    @BeforeEach
+    void saveHaircut() {
+        haircut = barberServiceRepository.save(BarberService.builder()
+                .name("Haircut")
+                .slug("haircut")
+                .price(new BigDecimal("20.00"))
+                .durationMinutes(config.getSlotIntervalMinutes())
+                .active(true)
+                .displayOrder(1)
+                .build());
+        barberServiceService.refresh();
+    }
+
+    @AfterEach
+    void clearDatabase() {
+        bookingRepository.deleteAll();
+        customerRepository.deleteAll();
+        barberServiceRepository.deleteAll();
+        // The caches still hold what was just deleted
+        slotOccupancyService.invalidateAll();
+        customerService.evictAll();
+        barberServiceService.refresh();
+    }
+
+    /**
+     * The first day at least {@code daysAhead} days from today that the shop is open.
+     */
+    protected LocalDate openDay(int daysAhead) {
+        LocalDate date = LocalDate.now().plusDays(daysAhead);
+        return date.getDayOfWeek() == config.getClosedDays() ? date.plusDays(1) : date;
+    }
+}
@@ -0,0 +1,164 @@
+package com.telegram.service;
+
+import com.telegram.entity.Booking;
+import com.telegram.entity.Booking.BookingStatus;
+import com.telegram.entity.Customer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LoyaltyServiceConcurrencyTests extends DatabaseTestSupport {
+
+    private static final long CHAT_ID = 584120377L;
+    private static final int THREADS = 16;
+    private static final int ITERATIONS = 50;
+
+    @Autowired
+    private LoyaltyService loyaltyService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository.save(newCustomer());
+    }
+
+    @Test
+    void concurrentIncrementsOnOneCustomerAreNeverLost() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> workers = new ArrayList<>();
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(THREADS)) {
+            for (int i = 0; i < THREADS; i++) {
+                workers.add(pool.submit(() -> {
+                    // Every thread works from its own, increasingly stale copy of the customer
+                    Customer customer = newCustomer();
+                    start.await();
+                    for (int j = 0; j < ITERATIONS; j++) {
+                        loyaltyService.incrementTotalBookings(customer);
+                        loyaltyService.incrementCompletedBookings(customer);
+                        loyaltyService.incrementCancelledBookings(customer);
+                        loyaltyService.awardBookingPoints(customer, false);
+                    }
+                    return null;
+                }));
+            }
+
+            start.countDown();
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        }
+
+        int expected = THREADS * ITERATIONS;
+        Customer customer = customerRepository.findById(CHAT_ID).orElseThrow();
+        assertThat(customer.getTotalBookings()).isEqualTo(expected);
+        assertThat(customer.getCompletedBookings()).isEqualTo(expected);
+        assertThat(customer.getCancelledBookings()).isEqualTo(expected);
+        assertThat(customer.getLoyaltyPoints()).isEqualTo(expected * config.getLoyalty().getPointsPerBooking());
+        assertThat(customer.getLifetimeLoyaltyPoints()).isEqualTo(expected * config.getLoyalty().getPointsPerBooking());
+    }
+
+    @Test
+    void incrementReturnsTheValueWrittenByThatCall() {
+        Customer customer = newCustomer();
+
+        assertThat(loyaltyService.incrementTotalBookings(customer)).isEqualTo(1);
+        assertThat(loyaltyService.incrementTotalBookings(customer)).isEqualTo(2);
+        assertThat(customer.getTotalBookings()).isEqualTo(2);
+    }
+
+    @Test
+    void lookupDuringTheTransactionDoesNotLeaveStaleCountersCached() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            loyaltyService.incrementTotalBookings(newCustomer());
+
+            // Another thread still sees the committed row and caches it
+            try (ExecutorService other = Executors.newSingleThreadExecutor()) {
+                Customer seen = other.submit(() -> customerService.findByChatlId(CHAT_ID).orElseThrow()).get();
+                assertThat(seen.getTotalBookings()).isZero();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(customerService.findByChatlId(CHAT_ID).orElseThrow().getTotalBookings()).isEqualTo(1);
+    }
+
+    @Test
+    void birthdayIsWrittenWithoutTouchingTheCounters() {
+        Customer stale = customerService.getOrCreateCustomer(CHAT_ID, null);
+        loyaltyService.incrementTotalBookings(newCustomer());
+
+        customerService.setBirthday(CHAT_ID, 14, 6);
+
+        Customer customer = customerRepository.findById(CHAT_ID).orElseThrow();
+        assertThat(stale.getTotalBookings()).isZero();
+        assertThat(customer.getTotalBookings()).isEqualTo(1);
+        assertThat(customer.getBirthdayDay()).isEqualTo(14);
+        assertThat(customer.getBirthdayMonth()).isEqualTo(6);
+        assertThat(customer.getBirthdayPrompted()).isTrue();
+    }
+
+    @Test
+    void runsCompletingBookingsInTheSameSecondCreditOnlyTheirOwn() {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        LocalDate yesterday = now.toLocalDate().minusDays(1);
+
+        bookingRepository.save(endedBooking(yesterday, LocalTime.of(10, 0)));
+        bookingRepository.completeEndedBookings(
+                BookingStatus.CONFIRMED, BookingStatus.COMPLETED, now.toLocalDate(), now.toLocalTime(), now, "run-a");
+        bookingRepository.save(endedBooking(yesterday, LocalTime.of(11, 0)));
+        bookingRepository.completeEndedBookings(
+                BookingStatus.CONFIRMED, BookingStatus.COMPLETED, now.toLocalDate(), now.toLocalTime(), now, "run-b");
+
+        loyaltyService.accrueCompletedBookings("run-a");
+        loyaltyService.accrueCompletedBookings("run-b");
+
+        Customer customer = customerRepository.findById(CHAT_ID).orElseThrow();
+        assertThat(customer.getCompletedBookings()).isEqualTo(2);
+        assertThat(customer.getLoyaltyPoints()).isEqualTo(
+                2 * config.getLoyalty().getPointsPerBooking() + config.getLoyalty().getFirstBookingBonus());
+    }
+
+    private Booking endedBooking(LocalDate date, LocalTime time) {
+        return Booking.builder()
+                .bookingCode("BK" + time.toSecondOfDay())
+                .customerChatId(CHAT_ID)
+                .serviceId(haircut.getId())
+                .bookingDate(date)
+                .startTime(time)
+                .endTime(time.plusMinutes(30))
+                .status(BookingStatus.CONFIRMED)
+                .build();
+    }
+
+    private Customer newCustomer() {
+        return Customer.builder()
+                .telegramChatId(CHAT_ID)
+                .birthdayPrompted(false)
+                .loyaltyPoints(0)
+                .lifetimeLoyaltyPoints(0)
+                .totalBookings(0)
+                .completedBookings(0)
+                .cancelledBookings(0)
+                .noShowBookings(0)
+                .build();
+    }
+}
@@ -0,0 +1,131 @@
+package com.telegram.service;
+
+import com.telegram.config.TelegramBotConfig;
+import com.telegram.tracing.Tracer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.telegram.telegrambots.bots.TelegramLongPollingBot;
+import org.telegram.telegrambots.meta.api.methods.AnswerCallbackQuery;
+import org.telegram.telegrambots.meta.api.methods.send.SendMessage;
+import org.telegram.telegrambots.meta.api.objects.ResponseParameters;
+import org.telegram.telegrambots.meta.exceptions.TelegramApiRequestException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MessageSenderTests {
+
+    private static final long LIMITED_CHAT = 1L;
+    private static final long OTHER_CHAT = 2L;
+
+    private final TelegramLongPollingBot bot = mock(TelegramLongPollingBot.class);
+    // Texts and query ids that get one 429 before they go through
+    private final Set<String> rateLimitedOnce = ConcurrentHashMap.newKeySet();
+    private final List<String> delivered = new CopyOnWriteArrayList<>();
+
+    private MessageSender sender;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // Built up front, so the failing call is as quick as a real 429
+        TelegramApiRequestException tooManyRequests = tooManyRequests();
+        doAnswer(invocation -> {
+            String text = invocation.<SendMessage>getArgument(0).getText();
+            if (rateLimitedOnce.remove(text)) {
+                throw tooManyRequests;
+            }
+            if (text.equals("broken")) {
+                throw new IllegalStateException("Unexpected failure in the client");
+            }
+            delivered.add(text);
+            return null;
+        }).when(bot).execute(any(SendMessage.class));
+        doAnswer(invocation -> {
+            String id = invocation.<AnswerCallbackQuery>getArgument(0).getCallbackQueryId();
+            if (rateLimitedOnce.remove(id)) {
+                throw tooManyRequests;
+            }
+            delivered.add(id);
+            return true;
+        }).when(bot).execute(any(AnswerCallbackQuery.class));
+
+        TelegramBotConfig config = new TelegramBotConfig();
+        config.getOutbound().setPerChatIntervalMillis(200L);
+        sender = new MessageSender(config, new SimpleMeterRegistry(), Tracer.disabled());
+        sender.setBot(bot);
+        sender.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sender.stop();
+    }
+
+    @Test
+    void rateLimitedChatIsPausedAloneAndKeepsItsOrder() throws Exception {
+        rateLimitedOnce.add("first");
+
+        CompletableFuture<?> first = sender.sendMessage(LIMITED_CHAT, "first");
+        CompletableFuture<?> second = sender.sendMessage(LIMITED_CHAT, "second");
+        CompletableFuture<?> other = sender.sendMessage(OTHER_CHAT, "other");
+
+        other.get(500, TimeUnit.MILLISECONDS);
+        assertThat(first).isNotDone();
+        assertThat(second).isNotDone();
+
+        CompletableFuture.allOf(first, second).get(5, TimeUnit.SECONDS);
+        assertThat(delivered).containsExactly("other", "first", "second");
+        assertThat(sender.getRetriedCalls()).isEqualTo(1);
+    }
+
+    @Test
+    void rateLimitedCallWithoutAChatPausesEveryChat() throws Exception {
+        rateLimitedOnce.add("query");
+
+        CompletableFuture<?> answer = sender.answerCallback("query");
+        // Let the answer fail before anything else is queued
+        while (sender.getRetriedCalls() == 0) {
+            TimeUnit.MILLISECONDS.sleep(10);
+        }
+        CompletableFuture<?> other = sender.sendMessage(OTHER_CHAT, "other");
+
+        TimeUnit.MILLISECONDS.sleep(300);
+        assertThat(other).isNotDone();
+
+        CompletableFuture.allOf(answer, other).get(5, TimeUnit.SECONDS);
+        assertThat(delivered).containsExactlyInAnyOrder("query", "other");
+    }
+
+    @Test
+    void unexpectedExceptionFailsTheCallAndKeepsSending() throws Exception {
+        CompletableFuture<?> broken = sender.sendMessage(LIMITED_CHAT, "broken");
+        CompletableFuture<?> next = sender.sendMessage(OTHER_CHAT, "next");
+
+        assertThatThrownBy(() -> broken.get(5, TimeUnit.SECONDS))
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        next.get(5, TimeUnit.SECONDS);
+        assertThat(delivered).containsExactly("next");
+    }
+
+    private static TelegramApiRequestException tooManyRequests() {
+        TelegramApiRequestException e = mock(TelegramApiRequestException.class);
+        when(e.getErrorCode()).thenReturn(429);
+        when(e.getParameters()).thenReturn(new ResponseParameters(null, 1));
+        return e;
+    }
+}
@@ -0,0 +1,180 @@
+package com.telegram.service;
+
+import com.telegram.entity.Booking;
+import com.telegram.entity.Customer;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Upper bounds on the SQL statements each bot action issues, counted with Hibernate
+ * statistics. Each action runs the same service calls as its handler in TelegramBot.
+ * A bound that suddenly needs raising usually means a query moved into a loop.
+ */
+class QueryCountTests extends DatabaseTestSupport {
+
+    private static final Long CHAT_ID = 584120377L;
+    private static final int BOOKINGS = 5;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private AvailabilityService availabilityService;
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Autowired
+    private LoyaltyService loyaltyService;
+
+    @Autowired
+    private BirthdayService birthdayService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void startCommand() {
+        assertThat(statements(() -> customerService.getOrCreateCustomer(CHAT_ID, "cian_d"))).isLessThanOrEqualTo(2);
+        // A returning customer is served from the cache
+        assertThat(statements(() -> customerService.getOrCreateCustomer(CHAT_ID, "cian_d"))).isZero();
+    }
+
+    @Test
+    void bookingFlow() {
+        customerService.getOrCreateCustomer(CHAT_ID, "cian_d");
+
+        // The whole booking window is read with one range query, then served from memory
+        List<LocalDate> dates = new ArrayList<>();
+        assertThat(statements(() -> dates.addAll(availabilityService.getAvailableDates(haircut)))).isLessThanOrEqualTo(1);
+        assertThat(statements(() -> availabilityService.getAvailableDates(haircut))).isZero();
+
+        LocalDate date = dates.getLast();
+        List<LocalTime> slots = new ArrayList<>();
+        assertThat(statements(() -> slots.addAll(availabilityService.getAvailableTimeSlots(date, haircut)))).isZero();
+
+        long confirm = statements(() -> {
+            bookingService.reserve(CHAT_ID, haircut, date, slots.getFirst()).orElseThrow();
+            loyaltyService.incrementTotalBookings(customerService.getOrCreateCustomer(CHAT_ID, null));
+        });
+        // Insert, counter increment and counter read back
+        assertThat(confirm).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    void myBookingsDoesNotGrowWithTheNumberOfBookings() {
+        List<Booking> bookings = book(BOOKINGS);
+
+        List<BookingPage> pages = new ArrayList<>();
+        long statements = statements(() -> pages.add(bookingService.getActiveBookingsPage(CHAT_ID)));
+
+        // Bookings and their services come back from one joined query
+        assertThat(bookings).hasSize(BOOKINGS);
+        assertThat(pages.getFirst().bookings()).isNotEmpty();
+        assertThat(statements).isLessThanOrEqualTo(1);
+    }
+
+    @Test
+    void cancelBooking() {
+        customerService.getOrCreateCustomer(CHAT_ID, "cian_d");
+        Booking booking = book(1).getFirst();
+
+        long statements = statements(() -> {
+            Booking found = bookingService.findByBookingCode(booking.getBookingCode()).orElseThrow();
+            barberServiceService.findById(found.getServiceId());
+            bookingService.cancelBooking(found);
+            loyaltyService.incrementCancelledBookings(customerService.getOrCreateCustomer(CHAT_ID, null));
+        });
+
+        // Lookup, merge (select and update), counter increment and read back
+        assertThat(statements).isLessThanOrEqualTo(5);
+    }
+
+    @Test
+    void reminderBatchDoesNotGrowWithTheNumberOfBookings() {
+        List<Long> ids = book(BOOKINGS).stream().map(Booking::getId).toList();
+
+        long statements = statements(() -> {
+            List<Booking> claimed = reminderService.claimReminders(ids, Duration.ofHours(24));
+            reminderService.getServicesFor(claimed);
+        });
+
+        assertThat(statements).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    void birthdayLookup() {
+        LocalDate today = LocalDate.now();
+        customerRepository.save(Customer.builder()
+                .telegramChatId(CHAT_ID)
+                .birthdayDay(today.getDayOfMonth())
+                .birthdayMonth(today.getMonthValue())
+                .birthdayPrompted(true)
+                .loyaltyPoints(0)
+                .lifetimeLoyaltyPoints(0)
+                .totalBookings(0)
+                .completedBookings(0)
+                .cancelledBookings(0)
+                .noShowBookings(0)
+                .build());
+
+        assertThat(statements(() -> birthdayService.getCustomersWithBirthdayToday())).isEqualTo(1);
+    }
+
+    @Test
+    void hotQueriesHaveIndexes() {
+        assertThat(indexes("bookings")).contains(
+                "idx_bookings_date_status_start",
+                "idx_bookings_customer_status_date",
+                "idx_bookings_status_date",
+                "idx_bookings_completion_run");
+        assertThat(indexes("customers")).contains("idx_customers_birthday");
+        assertThat(indexes("payments")).contains("idx_payments_booking", "idx_payments_payment_intent");
+    }
+
+    private List<Booking> book(int count) {
+        LocalDate date = openDay(1);
+        List<Booking> bookings = new ArrayList<>();
+        LocalTime time = config.getOpeningTime();
+        for (int i = 0; i < count; i++) {
+            bookings.add(bookingService.reserve(CHAT_ID, haircut, date, time).orElseThrow());
+            time = time.plusMinutes(config.getSlotIntervalMinutes());
+        }
+        return bookings;
+    }
+
+    private long statements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private List<String> indexes(String table) {
+        return jdbcTemplate.queryForList(
+                "select lower(index_name) from information_schema.indexes where lower(table_name) = ?",
+                String.class, table);
+    }
+}
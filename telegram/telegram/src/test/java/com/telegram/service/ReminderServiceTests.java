@@ -0,0 +1,87 @@
+package com.telegram.service;
+
+import com.telegram.entity.Booking;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReminderServiceTests extends DatabaseTestSupport {
+
+    private static final Long CHAT_ID = 584120377L;
+    private static final int INSTANCES = 8;
+
+    @Autowired
+    private ReminderService reminderService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    private List<Long> ids;
+
+    @BeforeEach
+    void setUp() {
+        LocalDate date = openDay(2);
+        ids = List.of(
+                bookingService.reserve(CHAT_ID, haircut, date, config.getOpeningTime()).orElseThrow().getId(),
+                bookingService.reserve(CHAT_ID, haircut, date, config.getOpeningTime().plusHours(1)).orElseThrow().getId());
+    }
+
+    @Test
+    void instancesClaimingTheSameRemindersSendEachOnce() throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Booking>>> claims = new ArrayList<>();
+
+        try (ExecutorService pool = Executors.newFixedThreadPool(INSTANCES)) {
+            for (int i = 0; i < INSTANCES; i++) {
+                claims.add(pool.submit(() -> {
+                    start.await();
+                    return reminderService.claimReminders(ids, Duration.ofHours(24));
+                }));
+            }
+            start.countDown();
+
+            int claimed = 0;
+            for (Future<List<Booking>> claim : claims) {
+                claimed += claim.get().size();
+            }
+            assertThat(claimed).isEqualTo(ids.size());
+        }
+    }
+
+    @Test
+    void largerOffsetIsNotClaimedOnceASmallerOneWasSent() {
+        assertThat(reminderService.claimReminders(ids, Duration.ofHours(1))).hasSize(ids.size());
+        assertThat(reminderService.claimReminders(ids, Duration.ofHours(24))).isEmpty();
+    }
+
+    @Test
+    void cancelledBookingIsNotClaimed() {
+        bookingService.cancelBooking(bookingRepository.findById(ids.getFirst()).orElseThrow());
+
+        assertThat(reminderService.claimReminders(ids, Duration.ofHours(24)))
+                .extracting(Booking::getId)
+                .containsExactly(ids.getLast());
+    }
+
+    @Test
+    void releasedReminderIsClaimedAgain() {
+        List<Booking> claimed = reminderService.claimReminders(ids, Duration.ofHours(1));
+        reminderService.releaseReminders(claimed.subList(0, 1), Duration.ofHours(1));
+
+        // The failed one goes back to its state before the claim, the delivered one stays sent
+        assertThat(reminderService.claimReminders(ids, Duration.ofHours(24)))
+                .extracting(Booking::getId)
+                .containsExactly(claimed.getFirst().getId());
+    }
+}
@@ -0,0 +1,108 @@
+package com.telegram.tracing;
+
+import com.telegram.config.TelegramBotConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class TracerTests {
+
+    @Test
+    void disabledTracerKeepsNothing() {
+        Tracer tracer = tracer(false, Duration.ZERO, 4);
+
+        try (Tracer.Scope trace = tracer.startTrace("update", 1)) {
+            assertThat(trace).isSameAs(Tracer.Scope.NOOP);
+            assertThat(tracer.span("handler")).isSameAs(Tracer.Scope.NOOP);
+            assertThat(tracer.currentTrace()).isNull();
+        }
+
+        assertThat(tracer.recentTraces()).isEmpty();
+    }
+
+    @Test
+    void nestedSpansAreRecordedWithTheirDepth() {
+        Tracer tracer = tracer(true, Duration.ZERO, 4);
+
+        try (Tracer.Scope trace = tracer.startTrace("update", 42)) {
+            try (Tracer.Scope handler = tracer.span("handler")) {
+                try (Tracer.Scope query = tracer.span("query", "bookings")) {
+                    tracer.recordSpan("BookingRepository.findAll", 1_000);
+                }
+            }
+        }
+
+        Trace trace = tracer.recentTraces().getFirst();
+        assertThat(trace.getName()).isEqualTo("update");
+        assertThat(trace.getKey()).isEqualTo(42);
+        assertThat(trace.getDurationNanos()).isNotNegative();
+        assertThat(trace.getSpans())
+                .extracting(Trace.Span::name, Trace.Span::depth)
+                .containsExactlyInAnyOrder(
+                        tuple("handler", 0),
+                        tuple("query bookings", 1),
+                        tuple("BookingRepository.findAll", 2));
+        assertThat(tracer.currentTrace()).isNull();
+    }
+
+    @Test
+    void fastUnsampledTraceIsDropped() {
+        Tracer tracer = tracer(true, Duration.ofHours(1), 4);
+
+        try (Tracer.Scope trace = tracer.startTrace("update", 1)) {
+            assertThat(tracer.currentTrace()).isNotNull();
+        }
+
+        assertThat(tracer.recentTraces()).isEmpty();
+    }
+
+    @Test
+    void spanOutsideATraceIsNotRecorded() {
+        Tracer tracer = tracer(true, Duration.ZERO, 4);
+
+        assertThat(tracer.span("handler")).isSameAs(Tracer.Scope.NOOP);
+        assertThat(tracer.span("query", "bookings")).isSameAs(Tracer.Scope.NOOP);
+        tracer.recordSpan("BookingRepository.findAll", 1_000);
+
+        assertThat(tracer.recentTraces()).isEmpty();
+    }
+
+    @Test
+    void bufferKeepsTheNewestTracesNewestFirst() {
+        Tracer tracer = tracer(true, Duration.ZERO, 2);
+
+        for (long key = 1; key <= 3; key++) {
+            tracer.startTrace("update", key).close();
+        }
+
+        List<Trace> traces = tracer.recentTraces();
+        assertThat(traces).extracting(Trace::getKey).containsExactly(3L, 2L);
+    }
+
+    @Test
+    void spansAreOrderedByStartEvenWhenAddedLate() {
+        Trace trace = new Trace(1, "update", 1);
+        long now = System.nanoTime();
+
+        // A queued call finishing after the handler, but started before it
+        trace.add("later", 0, now + 2_000, now + 3_000);
+        trace.add("earlier", 0, now + 1_000, now + 5_000);
+
+        assertThat(trace.getSpans()).extracting(Trace.Span::name).containsExactly("earlier", "later");
+        assertThat(trace.getSpans().getFirst().durationNanos()).isEqualTo(4_000);
+        assertThat(trace.getDurationNanos()).isEqualTo(-1);
+    }
+
+    static Tracer tracer(boolean enabled, Duration slowThreshold, int bufferSize) {
+        TelegramBotConfig config = new TelegramBotConfig();
+        config.getTracing().setEnabled(enabled);
+        config.getTracing().setSampleRate(0.0);
+        config.getTracing().setSlowThreshold(slowThreshold);
+        config.getTracing().setBufferSize(bufferSize);
+        return new Tracer(config);
+    }
+}
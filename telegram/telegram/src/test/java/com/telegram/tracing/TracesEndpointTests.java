@@ -0,0 +1,37 @@
+package com.telegram.tracing;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TracesEndpointTests {
+
+    @Test
+    void keptTracesAreShownInMicroseconds() {
+        Tracer tracer = TracerTests.tracer(true, Duration.ZERO, 4);
+        try (Tracer.Scope trace = tracer.startTrace("update", 42)) {
+            tracer.recordSpan("BookingRepository.findAll", 2_500_000);
+        }
+
+        TracesEndpoint.TracesView view = new TracesEndpoint(tracer).traces();
+
+        assertThat(view.enabled()).isTrue();
+        TracesEndpoint.TraceView trace = view.traces().getFirst();
+        assertThat(trace.name()).isEqualTo("update");
+        assertThat(trace.key()).isEqualTo(42);
+        assertThat(trace.spans()).singleElement().satisfies(span -> {
+            assertThat(span.name()).isEqualTo("BookingRepository.findAll");
+            assertThat(span.durationMicros()).isEqualTo(2_500);
+        });
+    }
+
+    @Test
+    void disabledTracerShowsNoTraces() {
+        TracesEndpoint.TracesView view = new TracesEndpoint(Tracer.disabled()).traces();
+
+        assertThat(view.enabled()).isFalse();
+        assertThat(view.traces()).isEmpty();
+    }
+}
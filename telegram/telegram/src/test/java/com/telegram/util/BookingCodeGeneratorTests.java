@@ -0,0 +1,140 @@
+package com.telegram.util;
+
+import com.telegram.config.BarbershopConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+class BookingCodeGeneratorTests {
+
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    // Codes per second times the seconds a generator may run ahead of the clock
+    private static final int CODES_WITHIN_LEAD = 32 * 5;
+
+    private final BarbershopConfig config = new BarbershopConfig();
+    private final AtomicLong clock = new AtomicLong(Instant.parse("2026-10-17T09:00:00Z").getEpochSecond());
+
+    @Test
+    void concurrentCodesAreUnique() throws Exception {
+        BookingCodeGenerator generator = new BookingCodeGenerator(config);
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<String>>> workers = new ArrayList<>();
+
+        Set<String> codes = new HashSet<>();
+        try (ExecutorService pool = Executors.newFixedThreadPool(threads)) {
+            for (int i = 0; i < threads; i++) {
+                workers.add(pool.submit(() -> {
+                    start.await();
+                    List<String> issued = new ArrayList<>();
+                    for (int j = 0; j < 8; j++) {
+                        issued.add(generator.nextCode());
+                    }
+                    return issued;
+                }));
+            }
+            start.countDown();
+            for (Future<List<String>> worker : workers) {
+                codes.addAll(worker.get());
+            }
+        }
+
+        assertThat(codes).hasSize(threads * 8);
+    }
+
+    @Test
+    void codesIncreaseAndCarryAValidCheckCharacter() {
+        BookingCodeGenerator generator = new BookingCodeGenerator(config, clock::get);
+
+        String previous = "";
+        for (int i = 0; i < 32; i++) {
+            String code = generator.nextCode();
+            assertThat(code).startsWith(BookingCodeGenerator.PREFIX).hasSize(11);
+            assertThat(BookingCodeGenerator.isValid(code)).isTrue();
+            assertThat(code).isGreaterThan(previous);
+            previous = code;
+        }
+    }
+
+    @Test
+    void checkCharacterCatchesEverySingleCharacterTypo() {
+        String code = new BookingCodeGenerator(config, clock::get).nextCode();
+
+        for (int position = BookingCodeGenerator.PREFIX.length(); position < code.length(); position++) {
+            for (char c : ALPHABET.toCharArray()) {
+                if (c == code.charAt(position)) {
+                    continue;
+                }
+                String typo = code.substring(0, position) + c + code.substring(position + 1);
+                assertThat(BookingCodeGenerator.isValid(typo)).as(typo).isFalse();
+            }
+        }
+    }
+
+    @Test
+    void malformedCodesAreInvalidButLegacyCodesAreNot() {
+        assertThat(BookingCodeGenerator.isValid("BK4821")).isTrue();
+
+        assertThat(BookingCodeGenerator.isValid(null)).isFalse();
+        assertThat(BookingCodeGenerator.isValid("")).isFalse();
+        assertThat(BookingCodeGenerator.isValid("BK482")).isFalse();
+        assertThat(BookingCodeGenerator.isValid("XX0TZGBZK62")).isFalse();
+        assertThat(BookingCodeGenerator.isValid("BK0TZGBZKU2")).isFalse();
+        assertThat(BookingCodeGenerator.isValid("bk0tzgbzk62")).isFalse();
+    }
+
+    @Test
+    void overflowingTheSequenceBorrowsFollowingSecondsUpToTheLead() throws Exception {
+        BookingCodeGenerator generator = new BookingCodeGenerator(config, clock::get);
+        clock.addAndGet(5);
+
+        Set<String> codes = new HashSet<>();
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < CODES_WITHIN_LEAD; i++) {
+                codes.add(generator.nextCode());
+            }
+        });
+        assertThat(codes).hasSize(CODES_WITHIN_LEAD);
+
+        // One more would run further ahead than allowed, so it waits for the clock
+        try (ExecutorService pool = Executors.newSingleThreadExecutor()) {
+            Future<String> next = pool.submit(generator::nextCode);
+            Thread.sleep(100);
+            assertThat(next).isNotDone();
+
+            clock.incrementAndGet();
+            assertThat(codes).doesNotContain(next.get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void restartedGeneratorDoesNotReissueBorrowedCodes() {
+        BookingCodeGenerator before = new BookingCodeGenerator(config, clock::get);
+        clock.addAndGet(5);
+        List<String> issued = new ArrayList<>();
+        for (int i = 0; i < CODES_WITHIN_LEAD; i++) {
+            issued.add(before.nextCode());
+        }
+
+        // Restarted within the same second, while the old generator was furthest ahead
+        BookingCodeGenerator after = new BookingCodeGenerator(config, clock::get);
+        String first = after.nextCode();
+
+        assertThat(issued).doesNotContain(first);
+        assertThat(first).isGreaterThan(issued.getLast());
+    }
+}
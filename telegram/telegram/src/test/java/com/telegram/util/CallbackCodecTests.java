@@ -0,0 +1,68 @@
+package com.telegram.util;
+
+import com.telegram.entity.BarberService;
+import com.telegram.service.BarberServiceService;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.Month;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CallbackCodecTests {
+
+    private final BarberServiceService barberServiceService = mock(BarberServiceService.class);
+    private final CallbackCodec codec = new CallbackCodec(barberServiceService);
+
+    @Test
+    void everyCallbackSurvivesARoundTrip() {
+        LocalDate date = LocalDate.of(2026, 10, 17);
+        List<Callback> callbacks = List.of(
+                new Callback.Menu(Callback.MenuItem.MY_BOOKINGS),
+                new Callback.BirthdayAdd(),
+                new Callback.BirthdaySkip(),
+                new Callback.BirthdayMonth(Month.FEBRUARY),
+                new Callback.BirthdayDay(29, Month.FEBRUARY),
+                new Callback.BirthdayConfirm(31, Month.DECEMBER),
+                new Callback.SelectService(12),
+                new Callback.SelectDate(12, date),
+                new Callback.SelectTime(12, date, LocalTime.of(18, 30)),
+                new Callback.ConfirmBooking(12, date, LocalTime.of(9, 0)),
+                new Callback.CancelBooking("BK0TZGBZK62"),
+                new Callback.ConfirmCancel("BK0TZGBZK62"),
+                new Callback.MyBookingsPage(date, LocalTime.of(17, 45), 918273645L));
+
+        for (Callback callback : callbacks) {
+            String data = codec.encode(callback);
+            assertThat(data.length()).isLessThanOrEqualTo(64);
+            assertThat(codec.decode(data)).isEqualTo(callback);
+        }
+    }
+
+    @Test
+    void legacyButtonsStillDecode() {
+        when(barberServiceService.findBySlug("skin-fade"))
+                .thenReturn(Optional.of(BarberService.builder().id(7L).slug("skin-fade").build()));
+
+        assertThat(codec.decode("menu:my_bookings")).isEqualTo(new Callback.Menu(Callback.MenuItem.MY_BOOKINGS));
+        assertThat(codec.decode("birthday_day:4:march")).isEqualTo(new Callback.BirthdayDay(4, Month.MARCH));
+        assertThat(codec.decode("confirm_booking:10-30:2025-06-14:skin-fade"))
+                .isEqualTo(new Callback.ConfirmBooking(7, LocalDate.of(2025, 6, 14), LocalTime.of(10, 30)));
+        assertThat(codec.decode("cancel_booking:BK1234")).isEqualTo(new Callback.CancelBooking("BK1234"));
+    }
+
+    @Test
+    void malformedDataDecodesAsUnknown() {
+        when(barberServiceService.findBySlug(anyString())).thenReturn(Optional.empty());
+
+        for (String data : List.of("", "2", "2m99", "2s", "2s12x", "2t1.2", "select_date:2025-06-14:retired", "menu")) {
+            assertThat(codec.decode(data)).isInstanceOf(Callback.Unknown.class);
+        }
+    }
+}